@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.common.ui;
+
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import de.hasait.sprinkler.Application;
+import de.hasait.sprinkler.domain.relay.RelayPO;
+import de.hasait.sprinkler.domain.relay.RelayRepository;
+import de.hasait.sprinkler.domain.schedule.ScheduleLogRepository;
+import de.hasait.sprinkler.domain.schedule.SchedulePO;
+import de.hasait.sprinkler.domain.schedule.ScheduleRepository;
+import de.hasait.sprinkler.domain.sensor.SensorPO;
+import de.hasait.sprinkler.domain.sensor.SensorRepository;
+import de.hasait.sprinkler.domain.sensor.SensorValuePO;
+import de.hasait.sprinkler.domain.sensor.SensorValueRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grid paging and the sensor value and schedule log queries against an in-memory H2 filled with many rows.
+ * <p>The sensor values are spread over <code>sensorCount</code> sensors, each with one value per minute, like sensors read by the same cron.
+ * The per-sensor queries take the next sensor on each invocation. The retention queries look for the oldest hour of values,
+ * as the hourly sweep does in the steady state.</p>
+ * <p>With <code>indexes=false</code> the indexes of SENSOR_VALUE and SCHEDULE_LOG are dropped, to compare the queries without them.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class JpaRepositoryDataProviderBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final LocalDateTime FIRST_DATE_TIME = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    @Param({"1000000"})
+    private int rowCount;
+
+    @Param({"100"})
+    private int sensorCount;
+
+    @Param({"false", "true"})
+    private boolean keyset;
+
+    @Param({"true", "false"})
+    private boolean indexes;
+
+    private ConfigurableApplicationContext context;
+
+    private int scrollOffset;
+
+    private SensorValueRepository sensorValueRepository;
+    private ScheduleLogRepository scheduleLogRepository;
+    private JpaRepositoryDataProvider<SensorValuePO, SensorValueRepository> dataProvider;
+    private List<SensorPO> sensorPOs;
+    private int sensorIndex;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(Application.class) //
+                .run("--spring.profiles.active=test", "--server.port=0", "--spring.jpa.show-sql=false", "--logging.level.de.hasait=info", //
+                        // the generated rows are years old, retention must not delete them while measuring
+                        "--sprinkler.retention.sensor-values=3660d", "--sprinkler.retention.schedule-logs=3660d");
+        sensorValueRepository = context.getBean(SensorValueRepository.class);
+        List<SensorPO> newSensorPOs = new ArrayList<>();
+        for (int i = 0; i < sensorCount; i++) {
+            SensorPO newSensorPO = new SensorPO();
+            newSensorPO.setName("Benchmark " + i);
+            newSensorPO.setProviderId("dummy");
+            newSensorPO.setProviderConfig("100");
+            newSensorPO.setCronExpression("0 0 0 1 1 *");
+            newSensorPOs.add(newSensorPO);
+        }
+        sensorPOs = context.getBean(SensorRepository.class).saveAll(newSensorPOs);
+
+        // row X belongs to sensor X mod sensorCount, each sensor gets one value per minute
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into SENSOR_VALUE (ID, VERSION, SENSOR_ID, DATE_TIME, INT_VALUE)" //
+                + " select 100000000 + X, 0, S.ID, dateadd('MINUTE', X / ?, timestamp '2020-01-01 00:00:00'), mod(X, 100)" //
+                + " from SYSTEM_RANGE(0, ? - 1)" //
+                + " join (select ID, row_number() over (order by ID) - 1 as N from SENSOR where NAME like 'Benchmark %') S on S.N = mod(X, ?)", //
+                sensorCount, rowCount, sensorCount);
+
+        RelayPO relayPO = new RelayPO();
+        relayPO.setName("Benchmark");
+        relayPO.setProviderId("dummy");
+        relayPO.setProviderConfig("benchmark");
+        relayPO = context.getBean(RelayRepository.class).save(relayPO);
+        SchedulePO schedulePO = new SchedulePO();
+        schedulePO.setRelay(relayPO);
+        schedulePO.setDurationSeconds(1);
+        schedulePO.setCronExpression("0 0 0 1 1 *");
+        schedulePO = context.getBean(ScheduleRepository.class).save(schedulePO);
+        scheduleLogRepository = context.getBean(ScheduleLogRepository.class);
+        jdbcTemplate.update("insert into SCHEDULE_LOG (ID, VERSION, SCHEDULE_ID, START, RELAY_NAME, DURATION_MILLIS)" //
+                + " select 100000000 + X, 0, ?, dateadd('MINUTE', X, timestamp '2020-01-01 00:00:00'), 'Benchmark', 1000" //
+                + " from SYSTEM_RANGE(1, ?)", schedulePO.getId(), rowCount);
+
+        if (!indexes) {
+            jdbcTemplate.execute("drop index IDX_SENSOR_VALUE_SENSOR_ID");
+            jdbcTemplate.execute("drop index IDX_SENSOR_VALUE_SENSOR_DATE_TIME");
+            jdbcTemplate.execute("drop index IDX_SCHEDULE_LOG_START");
+        }
+        jdbcTemplate.execute("analyze");
+
+        dataProvider = new JpaRepositoryDataProvider<>(sensorValueRepository);
+        dataProvider.setKeyset(keyset);
+        dataProvider.setPrefetchPages(1);
+
+        // scroll down to the deep page, so keyset can continue from there
+        for (int offset = 0; offset < rowCount - PAGE_SIZE; offset += 10 * PAGE_SIZE) {
+            fetchPage(offset);
+        }
+        scrollOffset = rowCount / 2;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long fetchFirstPage() {
+        return fetchPage(0);
+    }
+
+    @Benchmark
+    public long fetchDeepPage() {
+        return fetchPage(rowCount - PAGE_SIZE);
+    }
+
+    /**
+     * Next page on each invocation, like scrolling down in the grid.
+     */
+    @Benchmark
+    public long scroll() {
+        scrollOffset += PAGE_SIZE;
+        if (scrollOffset >= rowCount) {
+            scrollOffset = rowCount / 2;
+        }
+        return fetchPage(scrollOffset);
+    }
+
+    private long fetchPage(int offset) {
+        Query<SensorValuePO, String> query = new Query<>(offset, PAGE_SIZE, QuerySortOrder.desc("id").build(), null, null);
+        return dataProvider.fetch(query).count();
+    }
+
+    private SensorPO nextSensorPO() {
+        sensorIndex = (sensorIndex + 1) % sensorPOs.size();
+        return sensorPOs.get(sensorIndex);
+    }
+
+    /**
+     * Latest values of a sensor, as shown for each sensor in the UI.
+     */
+    @Benchmark
+    public List<SensorValuePO> findTop2BySensorOrderByIdDesc() {
+        return sensorValueRepository.findTop2BySensorOrderByIdDesc(nextSensorPO());
+    }
+
+    /**
+     * Retention of a sensor: the oldest hour of its values has expired.
+     */
+    @Benchmark
+    public List<Long> findIdsBySensorBefore() {
+        return sensorValueRepository.findIdsBySensorBefore(nextSensorPO(), FIRST_DATE_TIME.plusHours(1), PageRequest.of(0, 500));
+    }
+
+    /**
+     * Retention of schedule logs: the oldest hour has expired.
+     */
+    @Benchmark
+    public List<Long> findScheduleLogIdsBefore() {
+        return scheduleLogRepository.findIdsBefore(FIRST_DATE_TIME.plusHours(1), PageRequest.of(0, 500));
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.relay.provider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AbstractPinBasedRelayProvider#changeActive(String, int)} from several threads on few pins, without hardware.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class RelayProviderContentionBenchmark {
+
+    @Param({"1", "16"})
+    private int pinCount;
+
+    private String[] addresses;
+
+    private NopRelayProvider provider;
+
+    @Setup
+    public void setup() {
+        provider = new NopRelayProvider();
+        provider.addTransitionListener((providerId, address, active) -> Blackhole.consumeCPU(10));
+        addresses = new String[pinCount];
+        for (int i = 0; i < pinCount; i++) {
+            addresses[i] = "PIN" + i;
+        }
+    }
+
+    @Benchmark
+    public void activateDeactivate() {
+        String address = addresses[ThreadLocalRandom.current().nextInt(addresses.length)];
+        provider.changeActive(address, 1);
+        provider.changeActive(address, -1);
+    }
+
+    private static class NopRelayProvider extends AbstractPinBasedRelayProvider {
+
+        private NopRelayProvider() {
+            super("nop", null);
+        }
+
+        @Nonnull
+        @Override
+        public String getDescription() {
+            return "nop";
+        }
+
+        @Override
+        protected String validateConfigNonEmpty(@Nonnull String config) {
+            return null;
+        }
+
+        @Override
+        protected void changePin(String address, boolean active) {
+            Blackhole.consumeCPU(100);
+        }
+
+        @Override
+        protected boolean initPin(String address) {
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.schedule;
+
+import de.hasait.common.util.ValueWithExplanation;
+import de.hasait.sprinkler.domain.sensor.SensorPO;
+import de.hasait.sprinkler.domain.sensor.SensorValuePO;
+import de.hasait.sprinkler.service.sensor.SensorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleServiceBenchmark {
+
+    private ScheduleService scheduleService;
+    private SensorPO sensorPO;
+
+    @Setup
+    public void setup() {
+        sensorPO = new SensorPO();
+        sensorPO.setId(1L);
+        sensorPO.setName("Rain");
+
+        List<SensorValuePO> lastValues = List.of(createValue(12), createValue(7));
+        SensorService sensorService = new SensorService(null) {
+            @Override
+            public List<SensorValuePO> getLastValues(SensorPO sensorPO) {
+                return lastValues;
+            }
+        };
+        scheduleService = new ScheduleService(null, sensorService);
+    }
+
+    private SensorValuePO createValue(int value) {
+        SensorValuePO sensorValuePO = new SensorValuePO();
+        sensorValuePO.setSensor(sensorPO);
+        sensorValuePO.setDateTime(LocalDateTime.of(2026, 6, 1, 12, 0));
+        sensorValuePO.setIntValue(value);
+        return sensorValuePO;
+    }
+
+    @Benchmark
+    public ValueWithExplanation<Long> determineDurationMillisSensor() {
+        return scheduleService.determineDurationMillisSensor(TimeUnit.MINUTES.toMillis(20), 50, 10, sensorPO);
+    }
+
+}
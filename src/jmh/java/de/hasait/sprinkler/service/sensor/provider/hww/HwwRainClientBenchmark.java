@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.sensor.provider.hww;
+
+import com.google.gson.stream.JsonReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of ArcGIS query responses; the fixtures are generated with the shape of the HWW responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HwwRainClientBenchmark {
+
+    private static final int RING_VERTICES = 64;
+
+    @Param({"10", "200"})
+    private int featureCount;
+
+    @Param({"1", "16"})
+    private int positionCount;
+
+    private String pointResponse;
+    private String multipointResponse;
+
+    private float[] positionXs;
+    private float[] positionYs;
+    private HwwRainClient.Position[] positions;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        positionXs = new float[positionCount];
+        positionYs = new float[positionCount];
+        positions = new HwwRainClient.Position[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+            positionXs[i] = random.nextFloat() * 1000.0f;
+            positionYs[i] = random.nextFloat() * 1000.0f;
+            positions[i] = new HwwRainClient.Position(positionXs[i], positionYs[i]);
+        }
+        pointResponse = createResponse(random, false);
+        multipointResponse = createResponse(random, true);
+    }
+
+    private String createResponse(Random random, boolean geometry) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"objectIdFieldName\":\"OBJECTID\",\"spatialReference\":{\"wkid\":25832},\"fields\":[],\"features\":[");
+        for (int i = 0; i < featureCount; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"attributes\":{\"ende\":").append(1780000000000L + (i % 4) * 300000L) //
+                    .append(",\"regenhoehe\":").append(random.nextInt(500)).append('}');
+            if (geometry) {
+                // the service only returns features intersecting one of the positions
+                int center = i % positionCount;
+                double r = 50.0 + random.nextDouble() * 200.0;
+                double cx = positionXs[center] + (random.nextDouble() - 0.5) * r;
+                double cy = positionYs[center] + (random.nextDouble() - 0.5) * r;
+                sb.append(",\"geometry\":{\"rings\":[[");
+                for (int v = 0; v <= RING_VERTICES; v++) {
+                    double angle = 2.0 * Math.PI * v / RING_VERTICES;
+                    if (v > 0) {
+                        sb.append(',');
+                    }
+                    sb.append('[').append(cx + r * Math.cos(angle)).append(',').append(cy + r * Math.sin(angle)).append(']');
+                }
+                sb.append("]]}");
+            }
+            sb.append('}');
+        }
+        sb.append("]}");
+        return sb.toString();
+    }
+
+    @Benchmark
+    public Map<HwwRainClient.Position, HwwRainClient.RainAggregate> parsePoint() throws IOException {
+        return parse(pointResponse, false, 1);
+    }
+
+    @Benchmark
+    public Map<HwwRainClient.Position, HwwRainClient.RainAggregate> parseMultipoint() throws IOException {
+        return parse(multipointResponse, true, positionCount);
+    }
+
+    private Map<HwwRainClient.Position, HwwRainClient.RainAggregate> parse(String response, boolean multipoint, int count) throws IOException {
+        Map<HwwRainClient.Position, HwwRainClient.RainAggregate> aggregateByPosition = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            aggregateByPosition.put(positions[i], new HwwRainClient.RainAggregate());
+        }
+        try (JsonReader reader = new JsonReader(new StringReader(response))) {
+            HwwRainClient.parseResult(reader, multipoint, aggregateByPosition);
+        }
+        return aggregateByPosition;
+    }
+
+}
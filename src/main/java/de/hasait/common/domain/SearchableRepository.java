@@ -16,8 +16,12 @@
 
 package de.hasait.common.domain;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.NoRepositoryBean;
 
@@ -28,4 +32,9 @@
 
     long searchCount(String search);
 
+    /**
+     * Keyset scrolling over all entities, sort must end with a unique property.
+     */
+    Window<PO> findBy(ScrollPosition position, Sort sort, Limit limit);
+
 }
@@ -24,15 +24,22 @@
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.provisioning.UserDetailsManager;
+import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
 import java.io.File;
@@ -62,8 +69,7 @@ protected void configure(HttpSecurity http) throws Exception {
         // Configure your static resources with public access before calling
         // super.configure(HttpSecurity) as it adds final anyRequest matcher
         http.authorizeHttpRequests(auth -> auth.requestMatchers( //
-                        new AntPathRequestMatcher("/public/**"), //
-                        new AntPathRequestMatcher("/actuator/**") //
+                        new AntPathRequestMatcher("/public/**") //
                 )
                 .permitAll());
 
@@ -74,6 +80,22 @@ protected void configure(HttpSecurity http) throws Exception {
         setLoginView(http, LoginView.class);
     }
 
+    /**
+     * Actuator endpoints are secured separately with HTTP basic auth, so that metrics can be scraped. Only health is public.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher(EndpointRequest.toAnyEndpoint()) //
+                .authorizeHttpRequests(auth -> auth //
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll() //
+                        .anyRequest().authenticated()) //
+                .httpBasic(Customizer.withDefaults()) //
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) //
+                .csrf(AbstractHttpConfigurer::disable);
+        return http.build();
+    }
+
     @Override
     public void configure(WebSecurity web) throws Exception {
         // Customize your WebSecurity configuration.
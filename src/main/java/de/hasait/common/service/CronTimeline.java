@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.common.service;
+
+import de.hasait.common.util.Util;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Nonnull;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+/**
+ * Single timeline of all registered cron expressions.
+ * <p>Entries are ordered by their next fire instant; only one wake-up for the earliest entry is scheduled on the {@link TaskScheduler}.
+ * Due tasks are dispatched to the {@link TaskScheduler} and their next fire instant is computed once per firing.
+ * Registering or unregistering only touches the affected entry.</p>
+ * <p>Time is taken from {@link TaskScheduler#getClock()}.</p>
+ * <p>Publishes the number of entries and the statistics of the cron expression cache of {@link Util}, which it parses with.</p>
+ */
+@Service
+public class CronTimeline implements MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CronTimeline.class);
+
+    private final TaskScheduler taskScheduler;
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparing((Entry entry) -> entry.next).thenComparing(entry -> entry.key));
+    private final Map<String, Entry> entriesByKey = new HashMap<>();
+
+    private ScheduledFuture<?> wakeUpFuture;
+    private Instant wakeUpInstant;
+
+    public CronTimeline(TaskScheduler taskScheduler) {
+        this.taskScheduler = taskScheduler;
+    }
+
+    /**
+     * Register or replace the entry for key.
+     *
+     * @param task Receives the planned fire instant.
+     */
+    public void register(@Nonnull String key, @Nonnull String cronExpression, @Nonnull Consumer<Instant> task) {
+        Entry entry = new Entry(key, Util.parseCronExpression(cronExpression), task);
+        synchronized (queue) {
+            removeEntry(key);
+            entry.next = determineNext(entry, taskScheduler.getClock().instant());
+            if (entry.next != null) {
+                entriesByKey.put(key, entry);
+                queue.add(entry);
+            }
+            scheduleWakeUp();
+        }
+        LOG.debug("Registered {}: {} - next {}", key, cronExpression, entry.next);
+    }
+
+    public void unregister(@Nonnull String key) {
+        synchronized (queue) {
+            if (removeEntry(key)) {
+                scheduleWakeUp();
+                LOG.debug("Unregistered {}", key);
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    @Override
+    public void bindTo(@Nonnull MeterRegistry registry) {
+        Gauge.builder("sprinkler.timeline.entries", this, CronTimeline::size) //
+                .description("Schedules and sensors registered at the cron timeline") //
+                .register(registry);
+        GuavaCacheMetrics.monitor(registry, Util.CRON_EXPRESSION_CACHE, "cronExpression");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (queue) {
+            queue.clear();
+            entriesByKey.clear();
+            scheduleWakeUp();
+        }
+    }
+
+    private boolean removeEntry(String key) {
+        Entry oldEntry = entriesByKey.remove(key);
+        if (oldEntry != null) {
+            queue.remove(oldEntry);
+            return true;
+        }
+        return false;
+    }
+
+    private void wakeUp() {
+        List<Runnable> dues = new ArrayList<>();
+        synchronized (queue) {
+            Instant now = taskScheduler.getClock().instant();
+            Entry head;
+            while ((head = queue.peek()) != null && !head.next.isAfter(now)) {
+                queue.poll();
+                Entry entry = head;
+                Instant planned = head.next;
+                LOG.debug("Dispatching {} planned for {}", entry.key, planned);
+                dues.add(() -> entry.task.accept(planned));
+                head.next = determineNext(head, now.isAfter(head.next) ? now : head.next);
+                if (head.next != null) {
+                    queue.add(head);
+                } else {
+                    entriesByKey.remove(head.key);
+                }
+            }
+            wakeUpFuture = null;
+            wakeUpInstant = null;
+            scheduleWakeUp();
+        }
+        for (Runnable due : dues) {
+            taskScheduler.schedule(due, taskScheduler.getClock().instant());
+        }
+    }
+
+    /**
+     * Ensure exactly one wake-up for the current head; must hold lock.
+     */
+    private void scheduleWakeUp() {
+        Entry head = queue.peek();
+        Instant nextWakeUpInstant = head == null ? null : head.next;
+        if (wakeUpInstant != null && wakeUpInstant.equals(nextWakeUpInstant)) {
+            return;
+        }
+        if (wakeUpFuture != null) {
+            wakeUpFuture.cancel(false);
+        }
+        wakeUpInstant = nextWakeUpInstant;
+        wakeUpFuture = nextWakeUpInstant == null ? null : taskScheduler.schedule(this::wakeUp, nextWakeUpInstant);
+    }
+
+    private Instant determineNext(Entry entry, Instant after) {
+        ZonedDateTime next = entry.cronExpression.next(ZonedDateTime.ofInstant(after, taskScheduler.getClock().getZone()));
+        return next == null ? null : next.toInstant();
+    }
+
+    private static class Entry {
+
+        private final String key;
+        private final CronExpression cronExpression;
+        private final Consumer<Instant> task;
+
+        private Instant next;
+
+        private Entry(String key, CronExpression cronExpression, Consumer<Instant> task) {
+            this.key = key;
+            this.cronExpression = cronExpression;
+            this.task = task;
+        }
+
+    }
+
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.common.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link TaskScheduler} with its own {@link Clock}, which only moves forward via {@link #advanceTo(Instant)}.
+ * <p>Due tasks are run one after another on the thread calling {@link #advanceTo(Instant)}, ordered by their instant and then by submission,
+ * with the clock set to their instant. So long periods can be replayed deterministically in a fraction of the time.
+ * Work handed over to other executors still runs in real time.</p>
+ */
+public class SimulatedTaskScheduler implements TaskScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SimulatedTaskScheduler.class);
+
+    private final SimulatedClock clock;
+
+    private final PriorityQueue<SimulatedTask> queue = new PriorityQueue<>(Comparator.comparing((SimulatedTask task) -> task.instant).thenComparingLong(task -> task.sequence));
+    private long nextSequence;
+
+    private volatile Instant now;
+
+    private volatile TaskDecorator taskDecorator;
+
+    public SimulatedTaskScheduler(@Nonnull Instant start, @Nonnull ZoneId zone) {
+        this.now = start;
+        this.clock = new SimulatedClock(zone);
+    }
+
+    @Nonnull
+    @Override
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Like {@link org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler#setTaskDecorator(TaskDecorator)}: applies to tasks scheduled afterwards.
+     */
+    public void setTaskDecorator(@Nullable TaskDecorator taskDecorator) {
+        this.taskDecorator = taskDecorator;
+    }
+
+    /**
+     * Run all tasks due until target, including tasks scheduled by them, and leave the clock at target.
+     */
+    public synchronized void advanceTo(@Nonnull Instant target) {
+        SimulatedTask task;
+        while ((task = pollDue(target)) != null) {
+            now = task.instant;
+            task.run();
+        }
+        if (target.isAfter(now)) {
+            now = target;
+        }
+    }
+
+    public void advanceBy(@Nonnull Duration duration) {
+        advanceTo(now.plus(duration));
+    }
+
+    /**
+     * @return Number of tasks waiting.
+     */
+    public int size() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    private SimulatedTask pollDue(Instant target) {
+        synchronized (queue) {
+            SimulatedTask head = queue.peek();
+            return head == null || head.instant.isAfter(target) ? null : queue.poll();
+        }
+    }
+
+    private SimulatedTask enqueue(SimulatedTask task, Instant instant) {
+        synchronized (queue) {
+            task.instant = instant.isBefore(now) ? now : instant;
+            task.sequence = nextSequence++;
+            queue.add(task);
+        }
+        return task;
+    }
+
+    private boolean dequeue(SimulatedTask task) {
+        synchronized (queue) {
+            return queue.remove(task);
+        }
+    }
+
+    @Nullable
+    @Override
+    public ScheduledFuture<?> schedule(@Nonnull Runnable task, @Nonnull Trigger trigger) {
+        SimpleTriggerContext triggerContext = new SimpleTriggerContext(clock);
+        Instant first = trigger.nextExecution(triggerContext);
+        if (first == null) {
+            return null;
+        }
+        return enqueue(new SimulatedTask(task, scheduled -> {
+            triggerContext.update(scheduled, scheduled, now);
+            return trigger.nextExecution(triggerContext);
+        }), first);
+    }
+
+    @Nonnull
+    @Override
+    public ScheduledFuture<?> schedule(@Nonnull Runnable task, @Nonnull Instant startTime) {
+        return enqueue(new SimulatedTask(task, null), startTime);
+    }
+
+    @Nonnull
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(@Nonnull Runnable task, @Nonnull Instant startTime, @Nonnull Duration period) {
+        return enqueue(new SimulatedTask(task, scheduled -> scheduled.plus(period)), startTime);
+    }
+
+    @Nonnull
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(@Nonnull Runnable task, @Nonnull Duration period) {
+        return scheduleAtFixedRate(task, now, period);
+    }
+
+    @Nonnull
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(@Nonnull Runnable task, @Nonnull Instant startTime, @Nonnull Duration delay) {
+        return enqueue(new SimulatedTask(task, scheduled -> now.plus(delay)), startTime);
+    }
+
+    @Nonnull
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(@Nonnull Runnable task, @Nonnull Duration delay) {
+        return scheduleWithFixedDelay(task, now, delay);
+    }
+
+    private interface NextInstant {
+
+        /**
+         * @return <code>null</code> if there is no further execution.
+         */
+        Instant determine(Instant scheduled);
+
+    }
+
+    private class SimulatedTask implements ScheduledFuture<Object> {
+
+        private final Runnable runnable;
+        private final NextInstant nextInstant;
+        private final CompletableFuture<Object> done = new CompletableFuture<>();
+
+        private Instant instant;
+        private long sequence;
+
+        private SimulatedTask(Runnable runnable, NextInstant nextInstant) {
+            TaskDecorator decorator = taskDecorator;
+            this.runnable = decorator == null ? runnable : decorator.decorate(runnable);
+            this.nextInstant = nextInstant;
+        }
+
+        private void run() {
+            try {
+                runnable.run();
+            } catch (RuntimeException e) {
+                LOG.warn("Task failed at {}", instant, e);
+                if (nextInstant == null) {
+                    done.completeExceptionally(e);
+                    return;
+                }
+            }
+            Instant next = nextInstant == null ? null : nextInstant.determine(instant);
+            if (next == null) {
+                done.complete(null);
+            } else if (!done.isDone()) {
+                enqueue(this, next);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = done.cancel(false);
+            dequeue(this);
+            return cancelled;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return done.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return done.isDone();
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            return done.get();
+        }
+
+        @Override
+        public Object get(long timeout, @Nonnull TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return done.get(timeout, unit);
+        }
+
+        @Override
+        public long getDelay(@Nonnull TimeUnit unit) {
+            return unit.convert(Duration.between(now, instant));
+        }
+
+        @Override
+        public int compareTo(@Nonnull Delayed other) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+
+    }
+
+    private class SimulatedClock extends Clock {
+
+        private final ZoneId zone;
+
+        private SimulatedClock(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new SimulatedClock(zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+    }
+
+}
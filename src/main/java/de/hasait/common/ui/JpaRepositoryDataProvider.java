@@ -22,21 +22,99 @@
 import com.vaadin.flow.data.provider.SortDirection;
 import de.hasait.common.domain.IdAndVersion;
 import de.hasait.common.domain.SearchableRepository;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Stream;
 
+/**
+ * Offset paging by default.
+ * <p>With {@link #setKeyset(boolean)} unfiltered queries continue from the last row of a previously fetched page (seek method),
+ * so scrolling through a large table costs the same at any depth; jumps far away from any fetched page still use offset paging.
+ * {@link #setPrefetchPages(int)} fetches following pages with the same query and {@link #setCountCacheDuration(Duration)} avoids counting
+ * on every refresh. Both should only be used for tables, which are not edited in the grid, like logs.</p>
+ * <p>Known positions are kept per sort and dropped whenever the count changes, because inserted or deleted rows shift the offsets.</p>
+ */
 public class JpaRepositoryDataProvider<PO extends IdAndVersion, R extends SearchableRepository<PO, ?>> extends AbstractBackEndDataProvider<PO, String> {
 
+    private static final String ID_PROPERTY = "id";
+
+    /**
+     * Maximum number of rows read and skipped after the nearest known position; further away offset paging is used.
+     */
+    private static final int MAX_KEYSET_SKIP = 500;
+
+    private static final int MAX_KEYSET_POSITIONS = 10000;
+
     private final R repository;
 
+    private boolean keyset;
+    private int prefetchPages;
+    private Duration countCacheDuration = Duration.ZERO;
+
+    /**
+     * Per sort, key is the offset of the first row following the position.
+     */
+    private final Map<Sort, TreeMap<Integer, ScrollPosition>> keysetPositionsBySort = new HashMap<>();
+    /**
+     * Unfiltered count the known positions belong to.
+     */
+    private int keysetCount = -1;
+
+    private List<PO> prefetched;
+    private Sort prefetchedSort;
+    private int prefetchedOffset;
+
+    private Optional<String> countFilter;
+    private int count;
+    private long countNanos;
+
     public JpaRepositoryDataProvider(R repository) {
         this.repository = repository;
     }
 
+    public void setKeyset(boolean keyset) {
+        this.keyset = keyset;
+        clearKeyset();
+    }
+
+    /**
+     * @param prefetchPages Number of pages following the requested one, which are fetched by the same query (only with keyset).
+     */
+    public void setPrefetchPages(int prefetchPages) {
+        this.prefetchPages = prefetchPages;
+        clearKeyset();
+    }
+
+    /**
+     * @param countCacheDuration How long a count is reused, even across {@link #refreshAll()}.
+     */
+    public void setCountCacheDuration(Duration countCacheDuration) {
+        this.countCacheDuration = countCacheDuration;
+        countFilter = null;
+    }
+
+    @Override
+    public void refreshAll() {
+        clearKeyset();
+        super.refreshAll();
+    }
+
     @Override
     protected Stream<PO> fetchFromBackEnd(Query<PO, String> query) {
         Sort last = null;
@@ -54,9 +132,12 @@ protected Stream<PO> fetchFromBackEnd(Query<PO, String> query) {
             }
         }
         Sort sort = last == null ? Sort.unsorted() : last;
+        Optional<String> filter = query.getFilter();
+        if (keyset && filter.isEmpty()) {
+            return fetchKeyset(query, sort);
+        }
         PageRequest pageRequest = PageRequest.of(query.getPage(), query.getPageSize(), sort);
         Page<PO> page;
-        Optional<String> filter = query.getFilter();
         if (filter.isPresent()) {
             page = repository.search(filter.get(), pageRequest);
         } else {
@@ -68,16 +149,91 @@ protected Stream<PO> fetchFromBackEnd(Query<PO, String> query) {
         return page.stream();
     }
 
+    private Stream<PO> fetchKeyset(Query<PO, String> query, Sort sort) {
+        // the id makes the order unique, which is required for seeking
+        Sort uniqueSort = sort.getOrderFor(ID_PROPERTY) == null ? sort.and(Sort.by(ID_PROPERTY)) : sort;
+        TreeMap<Integer, ScrollPosition> keysetPositions = keysetPositionsBySort.computeIfAbsent(uniqueSort, ignored -> new TreeMap<>());
+
+        int offset = query.getOffset();
+        int limit = query.getLimit();
+        List<PO> rows;
+        if (prefetched != null && uniqueSort.equals(prefetchedSort) && offset >= prefetchedOffset && offset + limit <= prefetchedOffset + prefetched.size()) {
+            rows = prefetched.subList(offset - prefetchedOffset, offset - prefetchedOffset + limit);
+        } else {
+            Entry<Integer, ScrollPosition> floor = keysetPositions.floorEntry(offset);
+            List<PO> fetched;
+            int fetchedOffset;
+            if (offset == 0 || floor != null && offset - floor.getKey() <= MAX_KEYSET_SKIP) {
+                fetchedOffset = offset == 0 ? 0 : floor.getKey();
+                ScrollPosition position = offset == 0 ? ScrollPosition.keyset() : floor.getValue();
+                int skip = offset - fetchedOffset;
+                fetched = repository.findBy(position, uniqueSort, Limit.of(skip + limit * (1 + prefetchPages))).getContent();
+            } else {
+                // too far away from any known position, happens when jumping with the scrollbar
+                fetchedOffset = offset;
+                fetched = repository.findAll(PageRequest.of(query.getPage(), limit, uniqueSort)).getContent();
+            }
+            rememberKeysetPositions(keysetPositions, uniqueSort, fetchedOffset, fetched, limit);
+            prefetched = fetched;
+            prefetchedSort = uniqueSort;
+            prefetchedOffset = fetchedOffset;
+            int from = Math.min(fetched.size(), offset - fetchedOffset);
+            rows = fetched.subList(from, Math.min(fetched.size(), from + limit));
+        }
+        if (query.getInMemorySorting() != null) {
+            return rows.stream().sorted(query.getInMemorySorting());
+        }
+        return rows.stream();
+    }
+
+    private void rememberKeysetPositions(TreeMap<Integer, ScrollPosition> keysetPositions, Sort sort, int fetchedOffset, List<PO> fetched, int limit) {
+        if (keysetPositions.size() > MAX_KEYSET_POSITIONS) {
+            keysetPositions.clear();
+        }
+        for (int i = limit - 1; i < fetched.size(); i += limit) {
+            keysetPositions.put(fetchedOffset + i + 1, determineKeysetPosition(sort, fetched.get(i)));
+        }
+        if (!fetched.isEmpty()) {
+            keysetPositions.put(fetchedOffset + fetched.size(), determineKeysetPosition(sort, fetched.get(fetched.size() - 1)));
+        }
+    }
+
+    private KeysetScrollPosition determineKeysetPosition(Sort sort, PO po) {
+        BeanWrapper beanWrapper = new BeanWrapperImpl(po);
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            keys.put(order.getProperty(), beanWrapper.getPropertyValue(order.getProperty()));
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    private void clearKeyset() {
+        keysetPositionsBySort.clear();
+        prefetched = null;
+        prefetchedSort = null;
+    }
+
     @Override
     protected final int sizeInBackEnd(Query<PO, String> query) {
         Optional<String> filter = query.getFilter();
-        long count;
+        if (!countCacheDuration.isZero() && Objects.equals(filter, countFilter) && System.nanoTime() - countNanos < countCacheDuration.toNanos()) {
+            return count;
+        }
+        long backEndCount;
         if (filter.isPresent()) {
-            count = repository.searchCount(filter.get());
+            backEndCount = repository.searchCount(filter.get());
         } else {
-            count = repository.count();
+            backEndCount = repository.count();
+        }
+        count = backEndCount > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) backEndCount;
+        countFilter = filter;
+        countNanos = System.nanoTime();
+        if (filter.isEmpty() && count != keysetCount) {
+            // rows were inserted or deleted, so known positions may belong to other offsets now
+            clearKeyset();
+            keysetCount = count;
         }
-        return count > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) count;
+        return count;
     }
 
 }
@@ -16,6 +16,10 @@
 
 package de.hasait.common.util;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.scheduling.support.CronExpression;
@@ -39,6 +43,14 @@ public class Util {
 
     public static final Random RANDOM = new Random();
 
+    /**
+     * Parsed cron expressions shared by UI and schedulers, see {@link #parseCronExpression(String)}.
+     */
+    public static final LoadingCache<String, CronExpression> CRON_EXPRESSION_CACHE = CacheBuilder.newBuilder() //
+            .maximumSize(1000) //
+            .recordStats() //
+            .build(CacheLoader.from(CronExpression::parse));
+
     private static final List<Pair<Long, String>> UNITS;
 
     static {
@@ -94,12 +106,26 @@ public static <T> void parse(String string, String typeHint, Function<String, T>
 
     public static LocalDateTime determineNext(String cronExpressionString, LocalDateTime seed) {
         if (StringUtils.isNotBlank(cronExpressionString) && seed != null) {
-            CronExpression cronExpression = CronExpression.parse(cronExpressionString);
+            CronExpression cronExpression = parseCronExpression(cronExpressionString);
             return cronExpression.next(seed);
         }
         return null;
     }
 
+    /**
+     * @throws IllegalArgumentException if the expression is invalid, same as {@link CronExpression#parse(String)}.
+     */
+    public static CronExpression parseCronExpression(String cronExpressionString) {
+        try {
+            return CRON_EXPRESSION_CACHE.getUnchecked(cronExpressionString);
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     public static String determineNextRelative(LocalDateTime seed, LocalDateTime next, int limit) {
         if (seed == null || next == null) {
             return StringUtils.EMPTY;
@@ -19,8 +19,10 @@
 import com.vaadin.flow.component.page.AppShellConfigurator;
 import com.vaadin.flow.spring.annotation.EnableVaadin;
 import com.vaadin.flow.theme.Theme;
+import de.hasait.sprinkler.service.loadtest.LoadTestRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.ComponentScan;
 
 @SpringBootApplication
@@ -30,7 +32,11 @@
 public class Application implements AppShellConfigurator {
 
     public static void main(String[] mainArgs) {
-        SpringApplication.run(Application.class, mainArgs);
+        ConfigurableApplicationContext context = SpringApplication.run(Application.class, mainArgs);
+        if (context.getBeanProvider(LoadTestRunner.class).getIfAvailable() != null) {
+            // run returns after the load test is over
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
 }
@@ -16,23 +16,100 @@
 
 package de.hasait.sprinkler;
 
+import de.hasait.common.service.CronTimeline;
+import de.hasait.common.service.SimulatedTaskScheduler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+
 /**
  *
  */
 @Configuration
+@EnableConfigurationProperties(SchedulerConfiguration.class)
 public class ApplicationConfiguration {
 
+    private static final Logger LOG = LoggerFactory.getLogger(ApplicationConfiguration.class);
+
+    private static final String THREAD_NAME_PREFIX = "TaskScheduler";
+
     @Bean
-    public TaskScheduler createTaskScheduler() {
+    public TaskScheduler createTaskScheduler(SchedulerConfiguration configuration, MeterRegistry meterRegistry) {
+        AtomicInteger activeTasks = new AtomicInteger();
+        TaskDecorator activeTasksDecorator = task -> () -> {
+            activeTasks.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                activeTasks.decrementAndGet();
+            }
+        };
+        Gauge.builder("sprinkler.scheduler.tasks.active", activeTasks, AtomicInteger::get) //
+                .description("Tasks currently running on the TaskScheduler") //
+                .register(meterRegistry);
+
+        if (configuration.isSimulated()) {
+            LOG.warn("TaskScheduler uses simulated time");
+            SimulatedTaskScheduler simulatedTaskScheduler = new SimulatedTaskScheduler(Instant.now(), ZoneId.systemDefault());
+            simulatedTaskScheduler.setTaskDecorator(activeTasksDecorator);
+            registerQueuedTasksGauge(meterRegistry, simulatedTaskScheduler, SimulatedTaskScheduler::size);
+            return simulatedTaskScheduler;
+        }
+
+        if (configuration.isVirtualThreads()) {
+            if (Runtime.version().feature() < 21) {
+                throw new IllegalStateException("sprinkler.scheduler.virtual-threads requires Java 21+, running on " + Runtime.version());
+            }
+            // no queue gauge: every due task starts its own virtual thread, so no task waits for a thread
+            LOG.info("TaskScheduler dispatches to virtual threads");
+            SimpleAsyncTaskScheduler simpleAsyncTaskScheduler = new SimpleAsyncTaskScheduler();
+            simpleAsyncTaskScheduler.setVirtualThreads(true);
+            simpleAsyncTaskScheduler.setThreadNamePrefix(THREAD_NAME_PREFIX);
+            simpleAsyncTaskScheduler.setTaskDecorator(activeTasksDecorator);
+            return simpleAsyncTaskScheduler;
+        }
+
+        LOG.info("TaskScheduler uses pool of {} threads", configuration.getPoolSize());
         ThreadPoolTaskScheduler threadPoolTaskScheduler = new ThreadPoolTaskScheduler();
-        threadPoolTaskScheduler.setPoolSize(4);
-        threadPoolTaskScheduler.setThreadNamePrefix("TaskScheduler");
+        threadPoolTaskScheduler.setPoolSize(configuration.getPoolSize());
+        threadPoolTaskScheduler.setThreadNamePrefix(THREAD_NAME_PREFIX);
+        threadPoolTaskScheduler.setTaskDecorator(activeTasksDecorator);
+        Gauge.builder("sprinkler.scheduler.tasks.limit", threadPoolTaskScheduler, ThreadPoolTaskScheduler::getPoolSize) //
+                .description("Maximum number of tasks running concurrently on the TaskScheduler") //
+                .register(meterRegistry);
+        registerQueuedTasksGauge(meterRegistry, threadPoolTaskScheduler, scheduler -> scheduler.getScheduledThreadPoolExecutor().getQueue().size());
         return threadPoolTaskScheduler;
     }
 
+    /**
+     * Includes tasks scheduled for later, e.g. the next wake-up of the {@link CronTimeline}.
+     */
+    private static <T> void registerQueuedTasksGauge(MeterRegistry meterRegistry, T scheduler, ToDoubleFunction<T> queueSize) {
+        Gauge.builder("sprinkler.scheduler.tasks.queued", scheduler, queueSize) //
+                .description("Tasks waiting on the TaskScheduler, including tasks scheduled for later") //
+                .register(meterRegistry);
+    }
+
+    /**
+     * The clock of the TaskScheduler, so that services and scheduled tasks agree on the time.
+     */
+    @Bean
+    public Clock clock(TaskScheduler taskScheduler) {
+        return taskScheduler.getClock();
+    }
+
 }
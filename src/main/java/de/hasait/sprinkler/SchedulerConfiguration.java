@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "sprinkler.scheduler")
+public class SchedulerConfiguration {
+
+    /**
+     * Number of threads executing tasks, ignored if virtualThreads is enabled.
+     */
+    private int poolSize = 4;
+
+    /**
+     * Scheduler thread only dispatches, each task runs on its own virtual thread (requires Java 21+).
+     */
+    private boolean virtualThreads;
+
+    /**
+     * Number of threads reading sensors, ignored if virtualThreads is enabled.
+     */
+    private int sensorReadThreads = 8;
+
+    /**
+     * Maximum number of sensor reads waiting for a thread, or running if virtualThreads is enabled. Further reads are skipped.
+     */
+    private int sensorReadQueueCapacity = 1000;
+
+    /**
+     * Time stands still until advanced by SimulatedTaskScheduler#advanceTo, only for replaying long periods in load tests.
+     */
+    private boolean simulated;
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public int getSensorReadThreads() {
+        return sensorReadThreads;
+    }
+
+    public void setSensorReadThreads(int sensorReadThreads) {
+        this.sensorReadThreads = sensorReadThreads;
+    }
+
+    public int getSensorReadQueueCapacity() {
+        return sensorReadQueueCapacity;
+    }
+
+    public void setSensorReadQueueCapacity(int sensorReadQueueCapacity) {
+        this.sensorReadQueueCapacity = sensorReadQueueCapacity;
+    }
+
+    public boolean isSimulated() {
+        return simulated;
+    }
+
+    public void setSimulated(boolean simulated) {
+        this.simulated = simulated;
+    }
+
+}
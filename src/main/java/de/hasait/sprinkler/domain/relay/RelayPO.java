@@ -21,13 +21,17 @@
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "RELAY")
+@Table(name = "RELAY", indexes = { //
+        // relays by address, e.g. for relay transitions
+        @Index(name = "IDX_RELAY_PROVIDER", columnList = "PROVIDER_ID, PROVIDER_CONFIG") //
+})
 public class RelayPO implements IdAndVersion {
 
     @Id
@@ -91,8 +95,11 @@ public String getProviderConfig() {
         return providerConfig;
     }
 
+    /**
+     * @param providerConfig Trimmed, as the providers use it, so relays can be found by their address.
+     */
     public void setProviderConfig(String providerConfig) {
-        this.providerConfig = providerConfig;
+        this.providerConfig = providerConfig == null ? null : providerConfig.trim();
     }
 
 }
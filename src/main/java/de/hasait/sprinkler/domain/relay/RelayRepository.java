@@ -20,8 +20,11 @@
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface RelayRepository extends SearchableRepository<RelayPO, Long> {
 
@@ -33,4 +36,10 @@ public interface RelayRepository extends SearchableRepository<RelayPO, Long> {
     @Query("SELECT COUNT(r) FROM RelayPO r WHERE r.name LIKE %:search%")
     long searchCount(String search);
 
+    /**
+     * @param address Provider config, which is stored trimmed, so IDX_RELAY_PROVIDER can be used.
+     */
+    @Query("SELECT r FROM RelayPO r WHERE r.providerId = :providerId AND r.providerConfig = :address")
+    List<RelayPO> findByProviderAddress(@Param("providerId") String providerId, @Param("address") String address);
+
 }
@@ -22,6 +22,7 @@
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -36,7 +37,10 @@
  *
  */
 @Entity
-@Table(name = "SCHEDULE_LOG")
+@Table(name = "SCHEDULE_LOG", indexes = { //
+        // retention
+        @Index(name = "IDX_SCHEDULE_LOG_START", columnList = "START") //
+})
 public class ScheduleLogPO implements IdAndVersion {
 
     @Id
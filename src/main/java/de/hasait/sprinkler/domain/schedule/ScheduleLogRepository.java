@@ -17,15 +17,14 @@
 package de.hasait.sprinkler.domain.schedule;
 
 import de.hasait.common.domain.SearchableRepository;
-import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface ScheduleLogRepository extends SearchableRepository<ScheduleLogPO, Long> {
@@ -38,9 +37,7 @@ public interface ScheduleLogRepository extends SearchableRepository<ScheduleLogP
     @Query("SELECT COUNT(l) FROM ScheduleLogPO l WHERE l.relayName LIKE %:search%")
     long searchCount(String search);
 
-    @Transactional
-    @Modifying
-    @Query("DELETE FROM ScheduleLogPO l where l.start < :start")
-    void deleteAllBefore(LocalDateTime start);
+    @Query("SELECT l.id FROM ScheduleLogPO l WHERE l.start < :start ORDER BY l.id")
+    List<Long> findIdsBefore(@Param("start") LocalDateTime start, Pageable pageable);
 
 }
@@ -21,6 +21,7 @@
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -32,7 +33,12 @@
  *
  */
 @Entity
-@Table(name = "SENSOR_VALUE")
+@Table(name = "SENSOR_VALUE", indexes = { //
+        // latest values per sensor
+        @Index(name = "IDX_SENSOR_VALUE_SENSOR_ID", columnList = "SENSOR_ID, ID"), //
+        // retention per sensor
+        @Index(name = "IDX_SENSOR_VALUE_SENSOR_DATE_TIME", columnList = "SENSOR_ID, DATE_TIME") //
+})
 public class SensorValuePO implements IdAndVersion {
 
     @Id
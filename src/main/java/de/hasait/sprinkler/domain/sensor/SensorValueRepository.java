@@ -17,10 +17,8 @@
 package de.hasait.sprinkler.domain.sensor;
 
 import de.hasait.common.domain.SearchableRepository;
-import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -39,10 +37,8 @@ public interface SensorValueRepository extends SearchableRepository<SensorValueP
     @Query("SELECT COUNT(v) FROM SensorValuePO v WHERE CAST(v.intValue AS string) LIKE %:search%")
     long searchCount(String search);
 
-    @Transactional
-    @Modifying
-    @Query("DELETE FROM SensorValuePO v where v.dateTime < :dateTime")
-    void deleteAllBefore(LocalDateTime dateTime);
+    @Query("SELECT v.id FROM SensorValuePO v WHERE v.sensor = :sensor AND v.dateTime < :dateTime ORDER BY v.id")
+    List<Long> findIdsBySensorBefore(@Param("sensor") SensorPO sensorPO, @Param("dateTime") LocalDateTime dateTime, Pageable pageable);
 
     List<SensorValuePO> findTop2BySensorOrderByIdDesc(SensorPO sensorPO);
 
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.domain.sensor;
+
+import de.hasait.common.domain.IdAndVersion;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate of all sensor values of one sensor within one period.
+ */
+@Entity
+@Table(name = "SENSOR_VALUE_ROLLUP", indexes = { //
+        @Index(name = "IDX_SENSOR_VALUE_ROLLUP_PERIOD", columnList = "SENSOR_ID, RESOLUTION, PERIOD_START", unique = true), //
+        // retention
+        @Index(name = "IDX_SENSOR_VALUE_ROLLUP_PERIOD_START", columnList = "PERIOD_START") //
+})
+public class SensorValueRollupPO implements IdAndVersion {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Version
+    private long version;
+
+    @ManyToOne
+    @JoinColumn(name = "SENSOR_ID", nullable = false)
+    private SensorPO sensor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "RESOLUTION", nullable = false, length = 8)
+    private SensorValueRollupResolution resolution;
+
+    @Column(name = "PERIOD_START", nullable = false)
+    private LocalDateTime periodStart;
+
+    @Column(name = "VALUE_COUNT", nullable = false)
+    private int count;
+
+    @Column(name = "MIN_VALUE", nullable = false)
+    private int minValue;
+
+    @Column(name = "MAX_VALUE", nullable = false)
+    private int maxValue;
+
+    @Column(name = "SUM_VALUE", nullable = false)
+    private long sumValue;
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public SensorPO getSensor() {
+        return sensor;
+    }
+
+    public void setSensor(SensorPO sensor) {
+        this.sensor = sensor;
+    }
+
+    public SensorValueRollupResolution getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(SensorValueRollupResolution resolution) {
+        this.resolution = resolution;
+    }
+
+    public LocalDateTime getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(LocalDateTime periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public int getMinValue() {
+        return minValue;
+    }
+
+    public void setMinValue(int minValue) {
+        this.minValue = minValue;
+    }
+
+    public int getMaxValue() {
+        return maxValue;
+    }
+
+    public void setMaxValue(int maxValue) {
+        this.maxValue = maxValue;
+    }
+
+    public long getSumValue() {
+        return sumValue;
+    }
+
+    public void setSumValue(long sumValue) {
+        this.sumValue = sumValue;
+    }
+
+    public double determineAvgValue() {
+        return count == 0 ? 0.0 : (double) sumValue / count;
+    }
+
+    public void addValue(int value) {
+        if (count == 0) {
+            minValue = value;
+            maxValue = value;
+        } else {
+            minValue = Math.min(minValue, value);
+            maxValue = Math.max(maxValue, value);
+        }
+        sumValue += value;
+        count++;
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.domain.sensor;
+
+import de.hasait.common.domain.SearchableRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SensorValueRollupRepository extends SearchableRepository<SensorValueRollupPO, Long> {
+
+    @Override
+    @Query("SELECT r FROM SensorValueRollupPO r WHERE r.sensor.name LIKE %:search%")
+    Page<SensorValueRollupPO> search(@Param("search") String search, Pageable pageable);
+
+    @Override
+    @Query("SELECT COUNT(r) FROM SensorValueRollupPO r WHERE r.sensor.name LIKE %:search%")
+    long searchCount(String search);
+
+    Optional<SensorValueRollupPO> findBySensorAndResolutionAndPeriodStart(SensorPO sensorPO, SensorValueRollupResolution resolution, LocalDateTime periodStart);
+
+    @Query("SELECT r.id FROM SensorValueRollupPO r WHERE r.periodStart < :periodStart ORDER BY r.id")
+    List<Long> findIdsBefore(@Param("periodStart") LocalDateTime periodStart, Pageable pageable);
+
+}
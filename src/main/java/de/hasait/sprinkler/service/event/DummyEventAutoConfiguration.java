@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.hasait.sprinkler.service.event;
+
+import de.hasait.sprinkler.service.sensor.publish.MqttUriMissingCondition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DummyEventAutoConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DummyEventAutoConfiguration.class);
+
+    @Bean
+    @Conditional(MqttUriMissingCondition.class)
+    EventPublisher eventPublisher() {
+        LOG.info("Using {} as {}", DummyEventPublisher.class, EventPublisher.class);
+        return new DummyEventPublisher();
+    }
+
+}
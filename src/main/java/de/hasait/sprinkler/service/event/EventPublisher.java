@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.event;
+
+/**
+ * Receives events from {@link EventService}, which calls it on its own thread.
+ */
+public interface EventPublisher {
+
+    /**
+     * @param subject  Path of the subject, e.g. <code>relay/Lawn</code>.
+     * @param content  JSON.
+     * @param retained Whether this is a state which late subscribers should receive.
+     * @param state    Whether only the latest content of the subject matters, so that a waiting message may be replaced;
+     *                 events must be delivered one by one.
+     */
+    void publish(String subject, String content, boolean retained, boolean state) throws Exception;
+
+}
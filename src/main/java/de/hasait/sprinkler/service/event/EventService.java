@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.event;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.Gson;
+import de.hasait.sprinkler.domain.relay.RelayPO;
+import de.hasait.sprinkler.domain.relay.RelayRepository;
+import de.hasait.sprinkler.service.relay.provider.RelayProviderService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Nonnull;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes relay transitions and schedule events via {@link EventPublisher}.
+ * <p>Callers only enqueue; resolving names and publishing happens on a single event thread, in order.
+ * If the queue is full, events are dropped rather than blocking the switching path.</p>
+ */
+@Service
+public class EventService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventService.class);
+
+    private static final int QUEUE_CAPACITY = 1000;
+
+    private final EventPublisher publisher;
+
+    private final RelayRepository relayRepository;
+
+    private final Clock clock;
+
+    private final Gson gson = new Gson();
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY), new ThreadFactoryBuilder() //
+            .setNameFormat("EventService") //
+            .setDaemon(true) //
+            .build(), (runnable, executor) -> LOG.warn("Queue full - event dropped"));
+
+    public EventService(EventPublisher publisher, RelayRepository relayRepository, RelayProviderService relayProviderService, Clock clock) {
+        this.publisher = publisher;
+        this.relayRepository = relayRepository;
+        this.clock = clock;
+
+        relayProviderService.findAll().forEach(provider -> provider.addTransitionListener(this::relayChanged));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    public void relayChanged(@Nonnull String providerId, @Nonnull String address, boolean active) {
+        LocalDateTime dateTime = LocalDateTime.now(clock);
+        executor.execute(() -> {
+            for (RelayPO relayPO : relayRepository.findByProviderAddress(providerId, address)) {
+                Map<String, Object> content = new LinkedHashMap<>();
+                content.put("active", active);
+                content.put("dateTime", dateTime.toString());
+                publish("relay/" + sanitize(relayPO.getName()), content, true, true);
+            }
+        });
+    }
+
+    public void scheduleStarted(long scheduleId, @Nonnull String relayName, long durationMillis, String explanation) {
+        Map<String, Object> content = createScheduleContent("started", relayName);
+        content.put("durationMillis", durationMillis);
+        content.put("explanation", explanation);
+        executor.execute(() -> publish("schedule/" + scheduleId, content, true, false));
+    }
+
+    public void scheduleSkipped(long scheduleId, @Nonnull String relayName, String explanation) {
+        Map<String, Object> content = createScheduleContent("skipped", relayName);
+        content.put("explanation", explanation);
+        executor.execute(() -> publish("schedule/" + scheduleId, content, true, false));
+    }
+
+    public void scheduleFinished(long scheduleId, @Nonnull String relayName, boolean cancelled) {
+        Map<String, Object> content = createScheduleContent("finished", relayName);
+        content.put("cancelled", cancelled);
+        executor.execute(() -> publish("schedule/" + scheduleId, content, true, false));
+    }
+
+    private Map<String, Object> createScheduleContent(String event, String relayName) {
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("event", event);
+        content.put("relay", relayName);
+        content.put("dateTime", LocalDateTime.now(clock).toString());
+        return content;
+    }
+
+    private void publish(String subject, Map<String, Object> content, boolean retained, boolean state) {
+        try {
+            publisher.publish(subject, gson.toJson(content), retained, state);
+        } catch (Exception e) {
+            LOG.warn("EventPublisher failed to publish {}", subject, e);
+        }
+    }
+
+    /**
+     * MQTT topic level separator and wildcards are not allowed within a level.
+     */
+    private static String sanitize(String name) {
+        return name.replaceAll("[/+#]", "_");
+    }
+
+}
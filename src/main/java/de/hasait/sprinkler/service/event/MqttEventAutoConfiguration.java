@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.hasait.sprinkler.service.event;
+
+import de.hasait.sprinkler.service.sensor.publish.MqttConfiguration;
+import de.hasait.sprinkler.service.sensor.publish.MqttOutbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MqttEventAutoConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MqttEventAutoConfiguration.class);
+
+    @Bean
+    @ConditionalOnProperty(value = "sprinkler.mqtt.uri")
+    EventPublisher eventPublisher(MqttConfiguration configuration, MqttOutbox mqttOutbox) {
+        LOG.info("Using {} as {}", MqttEventPublisher.class, EventPublisher.class);
+        return new MqttEventPublisher(configuration, mqttOutbox);
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.loadtest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Only used with profile <code>loadtest</code>.
+ * <p>Time is compressed: every schedule fires once per real minute, so one minute of load test corresponds to one day of irrigation.</p>
+ * <p>With <code>sprinkler.scheduler.simulated</code> every schedule fires once per day instead and the durations are simulated time,
+ * which is replayed as fast as possible.</p>
+ */
+@ConfigurationProperties(prefix = "sprinkler.loadtest")
+public class LoadTestConfiguration {
+
+    /**
+     * Number of relays created, each with one schedule.
+     */
+    private int relays = 1000;
+
+    /**
+     * Number of sensors created, the schedules use them round robin.
+     */
+    private int sensors = 100;
+
+    /**
+     * Relay activation per schedule execution.
+     */
+    private int scheduleDurationSeconds = 1;
+
+    /**
+     * Cron expression of all sensors, the default corresponds to every two hours of compressed time.
+     */
+    private String sensorCronExpression = "*/5 * * * * *";
+
+    /**
+     * How long the load test runs before the application exits.
+     */
+    private Duration runTime = Duration.ofMinutes(10);
+
+    /**
+     * Pause between two reports.
+     */
+    private Duration reportInterval = Duration.ofSeconds(10);
+
+    public int getRelays() {
+        return relays;
+    }
+
+    public void setRelays(int relays) {
+        this.relays = relays;
+    }
+
+    public int getSensors() {
+        return sensors;
+    }
+
+    public void setSensors(int sensors) {
+        this.sensors = sensors;
+    }
+
+    public int getScheduleDurationSeconds() {
+        return scheduleDurationSeconds;
+    }
+
+    public void setScheduleDurationSeconds(int scheduleDurationSeconds) {
+        this.scheduleDurationSeconds = scheduleDurationSeconds;
+    }
+
+    public String getSensorCronExpression() {
+        return sensorCronExpression;
+    }
+
+    public void setSensorCronExpression(String sensorCronExpression) {
+        this.sensorCronExpression = sensorCronExpression;
+    }
+
+    public Duration getRunTime() {
+        return runTime;
+    }
+
+    public void setRunTime(Duration runTime) {
+        this.runTime = runTime;
+    }
+
+    public Duration getReportInterval() {
+        return reportInterval;
+    }
+
+    public void setReportInterval(Duration reportInterval) {
+        this.reportInterval = reportInterval;
+    }
+
+}
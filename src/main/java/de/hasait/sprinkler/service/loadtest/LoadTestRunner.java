@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.hasait.sprinkler.service.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the load test on startup; the application exits with {@link #getExitCode()} once it is over, see
+ * {@link de.hasait.sprinkler.Application#main(String[])}.
+ * <p>Run with the real clock to measure schedule lateness. With <code>sprinkler.scheduler.simulated=true</code> lateness is about
+ * zero by construction, compare the wall-clock handling time per schedule instead.</p>
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private final LoadTestService loadTestService;
+
+    private volatile int exitCode = 1;
+
+    public LoadTestRunner(LoadTestService loadTestService) {
+        this.loadTestService = loadTestService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        try {
+            loadTestService.run();
+            exitCode = 0;
+        } catch (RuntimeException e) {
+            LOG.error("Load test failed", e);
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+}
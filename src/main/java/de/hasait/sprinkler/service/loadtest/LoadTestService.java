@@ -0,0 +1,306 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.loadtest;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.hasait.common.service.SimulatedTaskScheduler;
+import de.hasait.sprinkler.domain.relay.RelayPO;
+import de.hasait.sprinkler.domain.relay.RelayRepository;
+import de.hasait.sprinkler.domain.schedule.ScheduleLogRepository;
+import de.hasait.sprinkler.domain.schedule.SchedulePO;
+import de.hasait.sprinkler.domain.schedule.ScheduleRepository;
+import de.hasait.sprinkler.domain.sensor.SensorPO;
+import de.hasait.sprinkler.domain.sensor.SensorRepository;
+import de.hasait.sprinkler.domain.sensor.SensorValueRepository;
+import de.hasait.sprinkler.service.relay.provider.dummy.DummyRelayProvider;
+import de.hasait.sprinkler.service.sensor.SensorTaskService;
+import de.hasait.sprinkler.service.sensor.SensorValueWriter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Populates relays, sensors and schedules using the dummy providers and reports lateness, handling time, CPU, heap and database growth until
+ * the run time is over.
+ * <p>Run with <code>--spring.profiles.active=loadtest</code>, see {@link LoadTestConfiguration} for the parameters.
+ * {@link LoadTestRunner} runs it and exits.</p>
+ * <p>Sensor reads and sensor value writes still pending are waited for before the final report, with simulated time also before
+ * each report, so that they are included.</p>
+ * <p>Lateness is measured with the clock of the scheduler, so with simulated time it is about zero by construction: simulated time
+ * does not pass while tasks run. The handling time of each schedule is wall-clock time in both modes.</p>
+ */
+@Service
+@Profile("loadtest")
+@EnableConfigurationProperties(LoadTestConfiguration.class)
+public class LoadTestService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadTestService.class);
+
+    private static final int SAVE_CHUNK_SIZE = 500;
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(1);
+
+    private final LoadTestConfiguration configuration;
+    private final RelayRepository relayRepository;
+    private final SensorRepository sensorRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final SensorValueRepository sensorValueRepository;
+    private final ScheduleLogRepository scheduleLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final TaskScheduler taskScheduler;
+    private final Clock clock;
+    private final SensorTaskService sensorTaskService;
+    private final SensorValueWriter sensorValueWriter;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder() //
+            .setNameFormat("LoadTest") //
+            .setDaemon(true) //
+            .build());
+
+    private long startNanos;
+    private Snapshot lastSnapshot;
+
+    public LoadTestService(LoadTestConfiguration configuration, RelayRepository relayRepository, SensorRepository sensorRepository, ScheduleRepository scheduleRepository, SensorValueRepository sensorValueRepository, ScheduleLogRepository scheduleLogRepository, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry, TaskScheduler taskScheduler, Clock clock, SensorTaskService sensorTaskService, SensorValueWriter sensorValueWriter) {
+        this.configuration = configuration;
+        this.relayRepository = relayRepository;
+        this.sensorRepository = sensorRepository;
+        this.scheduleRepository = scheduleRepository;
+        this.sensorValueRepository = sensorValueRepository;
+        this.scheduleLogRepository = scheduleLogRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.taskScheduler = taskScheduler;
+        this.clock = clock;
+        this.sensorTaskService = sensorTaskService;
+        this.sensorValueWriter = sensorValueWriter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Blocks until the run time is over and the final report is logged.
+     */
+    public void run() throws InterruptedException {
+        populate();
+
+        startNanos = System.nanoTime();
+        lastSnapshot = takeSnapshot();
+        if (taskScheduler instanceof SimulatedTaskScheduler simulatedTaskScheduler) {
+            replay(simulatedTaskScheduler);
+        } else {
+            long reportIntervalMillis = configuration.getReportInterval().toMillis();
+            ScheduledFuture<?> reportFuture = executor.scheduleAtFixedRate(this::report, reportIntervalMillis, reportIntervalMillis, TimeUnit.MILLISECONDS);
+            Thread.sleep(configuration.getRunTime().toMillis());
+            reportFuture.cancel(false);
+        }
+
+        awaitPendingWork();
+        report();
+        LOG.info("Load test finished after {}", configuration.getRunTime());
+    }
+
+    private void populate() {
+        LOG.info("Populating {} relays with one schedule each and {} sensors...", configuration.getRelays(), configuration.getSensors());
+        long populateStartNanos = System.nanoTime();
+
+        List<SensorPO> sensorPOs = new ArrayList<>();
+        for (int i = 0; i < configuration.getSensors(); i++) {
+            SensorPO sensorPO = new SensorPO();
+            sensorPO.setName("LoadTest Sensor " + i);
+            sensorPO.setProviderId("dummy");
+            sensorPO.setProviderConfig(Integer.toString(i % 100));
+            sensorPO.setCronExpression(configuration.getSensorCronExpression());
+            sensorPOs.add(sensorPO);
+        }
+        sensorPOs = saveInChunks(sensorPOs, sensorRepository::saveAll);
+
+        List<RelayPO> relayPOs = new ArrayList<>();
+        for (int i = 0; i < configuration.getRelays(); i++) {
+            RelayPO relayPO = new RelayPO();
+            relayPO.setName("LoadTest Relay " + i);
+            relayPO.setProviderId(DummyRelayProvider.PROVIDER_ID);
+            relayPO.setProviderConfig(Integer.toString(i));
+            relayPOs.add(relayPO);
+        }
+        relayPOs = saveInChunks(relayPOs, relayRepository::saveAll);
+
+        List<SchedulePO> schedulePOs = new ArrayList<>();
+        for (int i = 0; i < relayPOs.size(); i++) {
+            SchedulePO schedulePO = new SchedulePO();
+            schedulePO.setEnabled(true);
+            schedulePO.setRelay(relayPOs.get(i));
+            schedulePO.setDurationSeconds(configuration.getScheduleDurationSeconds());
+            if (!sensorPOs.isEmpty()) {
+                schedulePO.setSensor(sensorPOs.get(i % sensorPOs.size()));
+                schedulePO.setSensorInfluence(50);
+                schedulePO.setSensorChangeLimit(10);
+            }
+            if (taskScheduler instanceof SimulatedTaskScheduler) {
+                // daily, spread over the minutes from 04:00 to 19:59
+                schedulePO.setCronExpression("0 " + (i % 60) + " " + (4 + i / 60 % 16) + " * * *");
+            } else {
+                // spread the starts over the minute, every second has the same number of schedules
+                schedulePO.setCronExpression((i % 60) + " * * * * *");
+            }
+            schedulePOs.add(schedulePO);
+        }
+        saveInChunks(schedulePOs, scheduleRepository::saveAll);
+
+        LOG.info("Populated in {}ms, running for {}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - populateStartNanos), configuration.getRunTime());
+    }
+
+    private void replay(SimulatedTaskScheduler simulatedTaskScheduler) throws InterruptedException {
+        Instant end = clock.instant().plus(configuration.getRunTime());
+        Instant next = clock.instant().plus(configuration.getReportInterval());
+        while (next.isBefore(end)) {
+            simulatedTaskScheduler.advanceTo(next);
+            awaitPendingWork();
+            report();
+            next = next.plus(configuration.getReportInterval());
+        }
+        simulatedTaskScheduler.advanceTo(end);
+    }
+
+    /**
+     * Wait until the sensor reads and the sensor values handed over so far are done.
+     */
+    private void awaitPendingWork() throws InterruptedException {
+        long deadlineNanos = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (sensorTaskService.getPendingReadCount() > 0 || sensorValueWriter.getPendingCount() > 0) {
+            if (System.nanoTime() - deadlineNanos > 0) {
+                LOG.warn("Pending work not done within {}: {} sensor reads, {} sensor values", DRAIN_TIMEOUT, sensorTaskService.getPendingReadCount(), sensorValueWriter.getPendingCount());
+                return;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private <PO> List<PO> saveInChunks(List<PO> pos, Function<List<PO>, List<PO>> saveAll) {
+        List<PO> result = new ArrayList<>(pos.size());
+        for (int i = 0; i < pos.size(); i += SAVE_CHUNK_SIZE) {
+            result.addAll(saveAll.apply(pos.subList(i, Math.min(pos.size(), i + SAVE_CHUNK_SIZE))));
+        }
+        return result;
+    }
+
+    private synchronized void report() {
+        try {
+            Snapshot snapshot = takeSnapshot();
+            Snapshot last = lastSnapshot;
+            lastSnapshot = snapshot;
+
+            long fired = snapshot.latenessCount - last.latenessCount;
+            double latenessAvgMillis = fired == 0 ? 0.0 : (snapshot.latenessTotalMillis - last.latenessTotalMillis) / fired;
+            long handled = snapshot.handlingCount - last.handlingCount;
+            double handlingAvgMillis = handled == 0 ? 0.0 : (snapshot.handlingTotalMillis - last.handlingTotalMillis) / handled;
+            LOG.info("{}s at {}: fired {} (+{}), lateness avg {}ms max {}ms, handling avg {}ms max {}ms, sensor reads +{}, cpu {}%, heap {}MB, schedule logs {} ({}KB), sensor values {} ({}KB), writer queue {}", //
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos), //
+                    LocalDateTime.now(clock).withNano(0), //
+                    snapshot.latenessCount, fired, //
+                    Math.round(latenessAvgMillis), Math.round(snapshot.latenessMaxMillis), //
+                    Math.round(handlingAvgMillis), Math.round(snapshot.handlingMaxMillis), //
+                    snapshot.sensorReadCount - last.sensorReadCount, //
+                    Math.round(snapshot.processCpuUsage * 100.0), //
+                    snapshot.heapUsedBytes / (1024 * 1024), //
+                    snapshot.scheduleLogRows, snapshot.scheduleLogBytes / 1024, //
+                    snapshot.sensorValueRows, snapshot.sensorValueBytes / 1024, //
+                    Math.round(gaugeValue("sprinkler.sensor.writer.queue")) //
+            );
+        } catch (RuntimeException e) {
+            LOG.warn("Report failed", e);
+        }
+    }
+
+    private Snapshot takeSnapshot() {
+        Snapshot snapshot = new Snapshot();
+        Timer latenessTimer = meterRegistry.find("sprinkler.schedule.lateness").timer();
+        if (latenessTimer != null) {
+            snapshot.latenessCount = latenessTimer.count();
+            snapshot.latenessTotalMillis = latenessTimer.totalTime(TimeUnit.MILLISECONDS);
+            snapshot.latenessMaxMillis = latenessTimer.max(TimeUnit.MILLISECONDS);
+        }
+        Timer handlingTimer = meterRegistry.find("sprinkler.schedule.handling").timer();
+        if (handlingTimer != null) {
+            snapshot.handlingCount = handlingTimer.count();
+            snapshot.handlingTotalMillis = handlingTimer.totalTime(TimeUnit.MILLISECONDS);
+            snapshot.handlingMaxMillis = handlingTimer.max(TimeUnit.MILLISECONDS);
+        }
+        snapshot.sensorReadCount = meterRegistry.find("sprinkler.sensor.read").timers().stream().mapToLong(Timer::count).sum();
+        snapshot.processCpuUsage = gaugeValue("process.cpu.usage");
+        snapshot.heapUsedBytes = Math.round(meterRegistry.find("jvm.memory.used").tag("area", "heap").gauges().stream().mapToDouble(Gauge::value).sum());
+        snapshot.scheduleLogRows = scheduleLogRepository.count();
+        snapshot.scheduleLogBytes = diskSpaceUsed("SCHEDULE_LOG");
+        snapshot.sensorValueRows = sensorValueRepository.count();
+        snapshot.sensorValueBytes = diskSpaceUsed("SENSOR_VALUE");
+        return snapshot;
+    }
+
+    private double gaugeValue(String name) {
+        Gauge gauge = meterRegistry.find(name).gauge();
+        return gauge == null ? Double.NaN : gauge.value();
+    }
+
+    /**
+     * H2 specific, including indexes.
+     */
+    private long diskSpaceUsed(String table) {
+        Long bytes = jdbcTemplate.queryForObject("call DISK_SPACE_USED(?)", Long.class, table);
+        return bytes == null ? 0 : bytes;
+    }
+
+    private static class Snapshot {
+
+        private long latenessCount;
+        private double latenessTotalMillis;
+        private double latenessMaxMillis;
+        private long handlingCount;
+        private double handlingTotalMillis;
+        private double handlingMaxMillis;
+        private long sensorReadCount;
+        private double processCpuUsage;
+        private long heapUsedBytes;
+        private long scheduleLogRows;
+        private long scheduleLogBytes;
+        private long sensorValueRows;
+        private long sensorValueBytes;
+
+    }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.relay;
+
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Timed activation of a relay as two short tasks on the {@link TaskScheduler}: activate now and deactivate after the duration.
+ * <p>No thread is occupied while the relay is active. Cancelling an active activation deactivates the relay right away on the
+ * calling thread, so it is done when {@link #cancel(boolean)} returns.</p>
+ * <p>State changes and switching hold the lock of the activation, so cancelling cannot overtake a running switch and a scheduled
+ * step is never replaced by an older one.</p>
+ */
+public class RelayActivation implements ScheduledFuture<Object> {
+
+    private static final int PENDING = 0;
+    private static final int ACTIVE = 1;
+    private static final int DONE = 2;
+
+    private final TaskScheduler taskScheduler;
+    private final long durationMillis;
+    private final Runnable onActivate;
+    private final Runnable onDeactivate;
+
+    private final Object lock = new Object();
+    private final CompletableFuture<Object> done = new CompletableFuture<>();
+
+    private volatile int state = PENDING;
+    private ScheduledFuture<?> nextStep;
+    private volatile Instant deactivationInstant;
+    private volatile boolean cancelled;
+
+    RelayActivation(TaskScheduler taskScheduler, long durationMillis, Runnable onActivate, Runnable onDeactivate) {
+        this.taskScheduler = taskScheduler;
+        this.durationMillis = durationMillis;
+        this.onActivate = onActivate;
+        this.onDeactivate = onDeactivate;
+    }
+
+    void start() {
+        synchronized (lock) {
+            ScheduledFuture<?> activation = taskScheduler.schedule(this::activate, taskScheduler.getClock().instant());
+            // a scheduler running the task right away on this thread has already scheduled the deactivation
+            if (state == PENDING) {
+                nextStep = activation;
+            }
+        }
+    }
+
+    private void activate() {
+        synchronized (lock) {
+            if (state != PENDING) {
+                return;
+            }
+            state = ACTIVE;
+            try {
+                onActivate.run();
+            } catch (RuntimeException e) {
+                state = DONE;
+                done.completeExceptionally(e);
+                throw e;
+            }
+            deactivationInstant = taskScheduler.getClock().instant().plusMillis(durationMillis);
+            nextStep = taskScheduler.schedule(this::deactivate, deactivationInstant);
+        }
+    }
+
+    private void deactivate() {
+        synchronized (lock) {
+            if (state != ACTIVE) {
+                return;
+            }
+            state = DONE;
+            try {
+                onDeactivate.run();
+                done.complete(null);
+            } catch (RuntimeException e) {
+                done.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * A pending activation is cancelled, an active relay is deactivated synchronously on the calling thread.
+     *
+     * @param mayInterruptIfRunning ignored, nothing is running while the relay is active.
+     * @return <code>false</code> if the activation was already done.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        synchronized (lock) {
+            if (state == DONE) {
+                return false;
+            }
+            cancelled = true;
+            nextStep.cancel(false);
+            if (state == PENDING) {
+                state = DONE;
+                done.cancel(false);
+            } else {
+                deactivate();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Deactivates an active relay synchronously on the calling thread, because scheduled tasks are discarded when the scheduler
+     * stops. A pending activation is cancelled.
+     */
+    void shutdown() {
+        cancel(false);
+    }
+
+    /**
+     * Completes after deactivation, or exceptionally if the activation was cancelled before it started or switching failed.
+     */
+    public CompletionStage<Object> whenDone() {
+        return done.minimalCompletionStage();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done.isDone();
+    }
+
+    @Override
+    public Object get() throws InterruptedException, ExecutionException {
+        return done.get();
+    }
+
+    @Override
+    public Object get(long timeout, @Nonnull TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return done.get(timeout, unit);
+    }
+
+    @Override
+    public long getDelay(@Nonnull TimeUnit unit) {
+        Instant deactivationInstant = this.deactivationInstant;
+        if (state != ACTIVE || deactivationInstant == null) {
+            return 0;
+        }
+        return unit.convert(Duration.between(taskScheduler.getClock().instant(), deactivationInstant));
+    }
+
+    @Override
+    public int compareTo(@Nonnull Delayed other) {
+        return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+    }
+
+}
@@ -20,13 +20,17 @@
 import de.hasait.sprinkler.domain.relay.RelayRepository;
 import de.hasait.sprinkler.service.relay.provider.RelayProviderService;
 import de.hasait.common.util.Util;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
-import java.util.concurrent.ScheduledFuture;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class RelayService {
@@ -39,20 +43,56 @@ public class RelayService {
 
     private final TaskScheduler taskScheduler;
 
+    private final Set<RelayActivation> activations = ConcurrentHashMap.newKeySet();
+
     public RelayService(RelayRepository repository, RelayProviderService providerService, TaskScheduler taskScheduler) {
         this.repository = repository;
         this.providerService = providerService;
         this.taskScheduler = taskScheduler;
     }
 
+    /**
+     * Relays saved before the provider config was trimmed on save would not be found by their address.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void trimProviderConfigs() {
+        List<RelayPO> untrimmedRelayPOs = repository.findAll().stream() //
+                .filter(relayPO -> !relayPO.getProviderConfig().equals(relayPO.getProviderConfig().trim())) //
+                .toList();
+        if (!untrimmedRelayPOs.isEmpty()) {
+            untrimmedRelayPOs.forEach(relayPO -> relayPO.setProviderConfig(relayPO.getProviderConfig()));
+            repository.saveAll(untrimmedRelayPOs);
+            LOG.info("Trimmed provider config of {} relays", untrimmedRelayPOs.size());
+        }
+    }
+
     public void changeActive(long relayId, int amount) {
         RelayPO relayPO = repository.findById(relayId).orElseThrow();
         providerService.changeActive(relayPO.getProviderId(), relayPO.getProviderConfig(), amount);
     }
 
-    public ScheduledFuture<?> scheduleNow(long relayId, long durationMillis, String explanation) {
+    public RelayActivation scheduleNow(long relayId, long durationMillis, String explanation) {
         RelayPO relayPO = repository.findById(relayId).orElseThrow();
-        return taskScheduler.schedule(new RelayTask(relayPO.getId(), relayPO.getName(), durationMillis, explanation), Instant.now());
+        RelayTask task = new RelayTask(relayPO.getId(), relayPO.getName(), durationMillis, explanation);
+        RelayActivation activation = new RelayActivation(taskScheduler, durationMillis, task::activate, task::deactivate);
+        activations.add(activation);
+        activation.whenDone().whenComplete((ignored1, ignored2) -> activations.remove(activation));
+        activation.start();
+        return activation;
+    }
+
+    /**
+     * Switches off all relays still active, before the {@link TaskScheduler} discards their deactivation tasks.
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (RelayActivation activation : activations) {
+            try {
+                activation.shutdown();
+            } catch (RuntimeException e) {
+                LOG.error("Deactivation on shutdown failed", e);
+            }
+        }
     }
 
     public void deactivate(long relayId) {
@@ -60,7 +100,7 @@ public void deactivate(long relayId) {
         providerService.changeActive(relayPO.getProviderId(), relayPO.getProviderConfig(), -10000);
     }
 
-    private class RelayTask implements Runnable {
+    private class RelayTask {
 
         private final long relayId;
         private final String relayName;
@@ -76,17 +116,14 @@ public RelayTask(long relayId, String relayName, long durationMillis, String exp
             this.explanation = explanation;
         }
 
-        @Override
-        public void run() {
+        public void activate() {
             if (LOG.isInfoEnabled()) {
                 LOG.info("{} activating for {}ms ({}) - {}...", relayName, durationMillis, durationMillisHuman, explanation);
             }
             changeActive(relayId, 1);
-            try {
-                Thread.sleep(durationMillis);
-            } catch (InterruptedException e) {
-                LOG.info("Sleeping was interrupted");
-            }
+        }
+
+        public void deactivate() {
             changeActive(relayId, -1);
             if (LOG.isInfoEnabled()) {
                 LOG.info("{} deactivated", relayName);
@@ -23,7 +23,9 @@
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  *
@@ -35,6 +37,7 @@ public abstract class AbstractPinBasedRelayProvider implements RelayProvider {
     protected final ConcurrentHashMap<String, Integer> pins = new ConcurrentHashMap<>();
     private final String id;
     private final String disabledReason;
+    private final List<RelayTransitionListener> transitionListeners = new CopyOnWriteArrayList<>();
 
     protected AbstractPinBasedRelayProvider(String id, String disabledReason) {
         this.id = id;
@@ -85,24 +88,76 @@ public final void changeActive(@Nonnull String config, int amount) {
             LOG.warn("Cannot change pin {} - {}", address, disabledReason);
             return;
         }
+        // listeners are informed after compute, which must be short and must not call back into pins
+        Boolean[] transition = new Boolean[1];
         pins.compute(address, (key, current) -> {
             int state = current == null ? initPin01(address) : current;
             int newState = Math.max(0, state + amount);
             if (state > 0 && newState == 0) {
                 LOG.info("PIN {} deactivated - state: {} -> {}", address, state, newState);
                 changePin(address, false);
+                transition[0] = false;
             } else if (state == 0 && newState > 0) {
                 LOG.info("PIN {} activated - state: {} -> {}", address, state, newState);
                 changePin(address, true);
+                transition[0] = true;
             } else {
                 LOG.info("PIN {} not changed - state: {} -> {}", address, state, newState);
             }
             return newState;
         });
+        if (transition[0] != null) {
+            fireTransition(address, transition[0]);
+        }
+    }
+
+    @Override
+    public final void addTransitionListener(@Nonnull RelayTransitionListener listener) {
+        transitionListeners.add(listener);
+    }
+
+    private void fireTransition(String address, boolean active) {
+        for (RelayTransitionListener listener : transitionListeners) {
+            try {
+                listener.relayChanged(id, address, active);
+            } catch (RuntimeException e) {
+                LOG.warn("Listener failed for PIN {}", address, e);
+            }
+        }
     }
 
     protected abstract void changePin(String address, boolean active);
 
+    /**
+     * For providers which switch asynchronously: the change submitted by {@link #changePin(String, boolean)} failed.
+     * <p>The recorded state is forgotten if it still reflects the failed change, so the next access initializes the pin again,
+     * and listeners are informed that the pin kept its previous state. Must not be called from within
+     * {@link #changePin(String, boolean)}.</p>
+     */
+    protected final void changePinFailed(String address, boolean active) {
+        if (forgetPin(address, active)) {
+            fireTransition(address, !active);
+        }
+    }
+
+    /**
+     * Forgets the recorded state of the pin if it still reflects <code>active</code>, e.g. because initialization failed.
+     *
+     * @return <code>true</code> if the state was forgotten.
+     */
+    protected final boolean forgetPin(String address, boolean active) {
+        boolean[] forgotten = new boolean[1];
+        pins.computeIfPresent(address, (key, state) -> {
+            if (state > 0 != active) {
+                return state;
+            }
+            LOG.warn("PIN {} forgotten - state: {}", address, state);
+            forgotten[0] = true;
+            return null;
+        });
+        return forgotten[0];
+    }
+
     private int initPin01(String address) {
         return initPin(address) ? 1 : 0;
     }
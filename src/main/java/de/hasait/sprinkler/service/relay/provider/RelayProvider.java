@@ -19,6 +19,7 @@
 import de.hasait.common.service.Provider;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  *
@@ -29,4 +30,19 @@ public interface RelayProvider extends Provider {
 
     void changeActive(@Nonnull String config, int amount);
 
+    /**
+     * Runtime information about the config, e.g. the resolved hardware line; <code>null</code> if nothing is known.
+     */
+    @Nullable
+    default String getConfigInfo(@Nonnull String config) {
+        return null;
+    }
+
+    /**
+     * Listener is informed about each activation and deactivation; providers without transitions ignore it.
+     */
+    default void addTransitionListener(@Nonnull RelayTransitionListener listener) {
+        // nop
+    }
+
 }
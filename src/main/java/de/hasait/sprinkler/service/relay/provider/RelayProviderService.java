@@ -17,6 +17,8 @@
 package de.hasait.sprinkler.service.relay.provider;
 
 import de.hasait.common.service.AbstractProviderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
 /**
@@ -25,8 +27,12 @@
 @Service
 public class RelayProviderService extends AbstractProviderService<RelayProvider> {
 
-    public RelayProviderService(RelayProvider[] providers) {
+    private final MeterRegistry meterRegistry;
+
+    public RelayProviderService(RelayProvider[] providers, MeterRegistry meterRegistry) {
         super(providers);
+
+        this.meterRegistry = meterRegistry;
     }
 
     public boolean isActive(String providerId, String providerConfig) {
@@ -34,9 +40,25 @@ public boolean isActive(String providerId, String providerConfig) {
         return provider.isActive(providerConfig);
     }
 
+    public String getConfigInfo(String providerId, String providerConfig) {
+        RelayProvider provider = getProviderByIdNotNull(providerId);
+        return provider.getConfigInfo(providerConfig);
+    }
+
     public void changeActive(String providerId, String providerConfig, int amount) {
         RelayProvider provider = getProviderByIdNotNull(providerId);
-        provider.changeActive(providerConfig, amount);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            provider.changeActive(providerConfig, amount);
+            outcome = "success";
+        } finally {
+            sample.stop(Timer.builder("sprinkler.relay.change") //
+                    .description("Switching a relay via its provider") //
+                    .tag("provider", providerId) //
+                    .tag("outcome", outcome) //
+                    .register(meterRegistry));
+        }
     }
 
 }
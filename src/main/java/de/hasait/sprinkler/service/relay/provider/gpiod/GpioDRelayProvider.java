@@ -31,6 +31,7 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  *
@@ -47,6 +48,11 @@ public class GpioDRelayProvider extends AbstractPinBasedRelayProvider {
     private static final String GPIO_SET_COMMAND = "/usr/bin/gpioset";
     private static final List<String> COMMANDS = List.of(GPIO_FIND_COMMAND, GPIO_GET_COMMAND, GPIO_SET_COMMAND);
 
+    /**
+     * Result of gpiofind (chip and offset) by address; a line name does not move while the system is running.
+     */
+    private final ConcurrentHashMap<String, List<String>> resolvedLines = new ConcurrentHashMap<>();
+
     public GpioDRelayProvider() {
         super(PROVIDER_ID, COMMANDS.stream() //
                 .filter(command -> !new File(command).exists()) //
@@ -71,22 +77,47 @@ protected String validateConfigNonEmpty(@Nonnull String config) {
         return null;
     }
 
+    @Nullable
+    @Override
+    public String getConfigInfo(@Nonnull String config) {
+        List<String> resolvedLine = resolvedLines.get(config.trim());
+        return resolvedLine == null ? null : String.join(" ", resolvedLine);
+    }
+
     @Override
     protected void changePin(String address, boolean active) {
         String value = active ? "1" : "0";
-        List<String> gpioFindResult = execute(GPIO_FIND_COMMAND, address);
-        if (gpioFindResult.size() != 2) {
-            throw new RuntimeException("Unexpected gpiofind result for " + address + ": " + gpioFindResult);
+        List<String> resolvedLine = resolvedLines.computeIfAbsent(address, this::resolveLine);
+        try {
+            execute(GPIO_SET_COMMAND, resolvedLine.get(0), resolvedLine.get(1) + "=" + value);
+        } catch (RuntimeException e) {
+            resolvedLines.remove(address);
+            throw e;
         }
-        execute(GPIO_SET_COMMAND, gpioFindResult.get(0), gpioFindResult.get(1) + "=" + value);
     }
 
     @Override
     protected boolean initPin(String address) {
+        resolvedLines.put(address, resolveLine(address));
         changePin(address, false);
         return false;
     }
 
+    @Override
+    protected void shutdown() {
+        resolvedLines.clear();
+
+        super.shutdown();
+    }
+
+    private List<String> resolveLine(String address) {
+        List<String> gpioFindResult = execute(GPIO_FIND_COMMAND, address);
+        if (gpioFindResult.size() != 2) {
+            throw new RuntimeException("Unexpected gpiofind result for " + address + ": " + gpioFindResult);
+        }
+        return List.copyOf(gpioFindResult);
+    }
+
     private List<String> execute(String... command) {
         LOG.debug("Executing command... {}", List.of(command));
 
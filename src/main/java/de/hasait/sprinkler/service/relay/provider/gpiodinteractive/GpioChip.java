@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.relay.provider.gpiodinteractive;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Source of {@link GpioLine}s, abstracted to be replaceable by a fake in tests.
+ */
+public interface GpioChip {
+
+    /**
+     * Request the line with the given name as output; the request is held until {@link GpioLine#close()}.
+     */
+    @Nonnull
+    GpioLine requestOutput(@Nonnull String lineName, boolean initialValue);
+
+}
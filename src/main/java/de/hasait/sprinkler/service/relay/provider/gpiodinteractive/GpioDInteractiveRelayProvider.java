@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.relay.provider.gpiodinteractive;
+
+import de.hasait.sprinkler.service.relay.provider.AbstractPinBasedRelayProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Relays via libgpiod v2 <code>gpioset --interactive</code>: the line request is kept open for the life of the provider.
+ */
+@Service
+public class GpioDInteractiveRelayProvider extends AbstractPinBasedRelayProvider {
+
+    public static final String PROVIDER_ID = "gpiod-interactive";
+
+    private static final Logger LOG = LoggerFactory.getLogger(GpioDInteractiveRelayProvider.class);
+
+    private static final String GPIO_SET_COMMAND = "/usr/bin/gpioset";
+    /**
+     * Only part of libgpiod v2, which is also the first version supporting <code>gpioset --interactive</code>.
+     */
+    private static final String GPIO_NOTIFY_COMMAND = "/usr/bin/gpionotify";
+
+    private static String determineDisabledReason() {
+        if (!new File(GPIO_SET_COMMAND).exists()) {
+            return GPIO_SET_COMMAND + " does not exist";
+        }
+        if (!new File(GPIO_NOTIFY_COMMAND).exists()) {
+            return GPIO_NOTIFY_COMMAND + " does not exist - libgpiod v2 required";
+        }
+        return null;
+    }
+
+    private final GpioChip chip;
+
+    private final ConcurrentHashMap<String, GpioLine> lines = new ConcurrentHashMap<>();
+
+    public GpioDInteractiveRelayProvider() {
+        this(new GpioSetInteractiveChip(GPIO_SET_COMMAND), determineDisabledReason());
+    }
+
+    GpioDInteractiveRelayProvider(GpioChip chip, String disabledReason) {
+        super(PROVIDER_ID, disabledReason);
+
+        this.chip = chip;
+    }
+
+    @Nonnull
+    @Override
+    public String getDescription() {
+        return "Relays via persistent " + GPIO_SET_COMMAND + " --interactive (libgpiod v2)";
+    }
+
+    @Nullable
+    @Override
+    protected String validateConfigNonEmpty(@Nonnull String config) {
+        if (config.contains("\n") || config.contains("=") || config.contains(" ")) {
+            return "Cannot contain newlines, spaces or =";
+        }
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public String getConfigInfo(@Nonnull String config) {
+        GpioLine line = lines.get(config.trim());
+        return line == null ? null : line.toString();
+    }
+
+    /**
+     * A lost line is requested again with the new value; throws if that fails, so the recorded state is kept.
+     */
+    @Override
+    protected void changePin(String address, boolean active) {
+        GpioLine line = lines.get(address);
+        if (line == null || !line.isValid()) {
+            LOG.warn("Line {} lost - requesting again", address);
+            requestLine(address, active);
+            return;
+        }
+        try {
+            line.setValue(active);
+        } catch (RuntimeException e) {
+            lines.remove(address, line);
+            line.close();
+            throw e;
+        }
+    }
+
+    @Override
+    protected boolean initPin(String address) {
+        requestLine(address, false);
+        return false;
+    }
+
+    private void requestLine(String address, boolean value) {
+        // the old request has to be released first, otherwise the line is still busy
+        GpioLine oldLine = lines.remove(address);
+        if (oldLine != null) {
+            oldLine.close();
+        }
+        GpioLine newLine = chip.requestOutput(address, value);
+        if (!newLine.isValid()) {
+            newLine.close();
+            throw new RuntimeException("Line " + address + " lost right after requesting it");
+        }
+        lines.put(address, newLine);
+        LOG.debug("Requested line {}", newLine);
+    }
+
+    @Override
+    protected void shutdown() {
+        lines.values().forEach(GpioLine::close);
+        lines.clear();
+
+        super.shutdown();
+    }
+
+}
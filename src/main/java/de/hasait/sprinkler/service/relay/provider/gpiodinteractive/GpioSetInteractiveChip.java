@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.relay.provider.gpiodinteractive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GpioChip} holding one <code>gpioset --interactive</code> child (libgpiod v2) per line.
+ * <p>The line name is resolved once by gpioset when the child starts, afterwards changing the value is a single write to its stdin.
+ * An unknown chip or line lets gpioset exit right away, so the request only succeeds if the child is still alive after
+ * {@link #STARTUP_CHECK_MILLIS}. Its stderr is logged.</p>
+ */
+public class GpioSetInteractiveChip implements GpioChip {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GpioSetInteractiveChip.class);
+
+    static final long STARTUP_CHECK_MILLIS = 200;
+
+    private final String gpioSetCommand;
+
+    public GpioSetInteractiveChip(String gpioSetCommand) {
+        this.gpioSetCommand = gpioSetCommand;
+    }
+
+    @Nonnull
+    @Override
+    public GpioLine requestOutput(@Nonnull String lineName, boolean initialValue) {
+        List<String> command = List.of(gpioSetCommand, "--interactive", lineName + "=" + toValue(initialValue));
+        LOG.debug("Starting process... {}", command);
+
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        processBuilder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        Process process;
+        try {
+            process = processBuilder.start();
+        } catch (IOException e) {
+            throw new RuntimeException("Command failed: " + command, e);
+        }
+        ProcessGpioLine line = new ProcessGpioLine(lineName, process);
+        boolean exited;
+        try {
+            exited = process.waitFor(STARTUP_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            line.close();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while starting gpioset for " + lineName, e);
+        }
+        if (exited) {
+            throw new RuntimeException(line.describeExit());
+        }
+        return line;
+    }
+
+    private static String toValue(boolean value) {
+        return value ? "1" : "0";
+    }
+
+    private static class ProcessGpioLine implements GpioLine {
+
+        private final String lineName;
+        private final Process process;
+        private final Writer writer;
+        private final Thread errorReader;
+        private volatile String lastError;
+
+        private ProcessGpioLine(String lineName, Process process) {
+            this.lineName = lineName;
+            this.process = process;
+            this.writer = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+            this.errorReader = new Thread(this::readErrors, "gpioset-" + lineName);
+            errorReader.setDaemon(true);
+            errorReader.start();
+        }
+
+        private void readErrors() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    LOG.warn("gpioset for {}: {}", lineName, line);
+                    lastError = line;
+                }
+            } catch (IOException e) {
+                LOG.debug("Cannot read stderr of gpioset for {}", lineName, e);
+            }
+        }
+
+        private String describeExit() {
+            try {
+                // the last lines may still be in the pipe when the process has just exited
+                errorReader.join(STARTUP_CHECK_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String error = lastError;
+            return "gpioset for " + lineName + " exited with " + process.exitValue() + (error == null ? "" : ": " + error);
+        }
+
+        @Override
+        public boolean isValid() {
+            return process.isAlive();
+        }
+
+        @Override
+        public synchronized void setValue(boolean value) {
+            if (!process.isAlive()) {
+                throw new RuntimeException(describeExit());
+            }
+            try {
+                writer.write("set " + lineName + "=" + toValue(value) + "\n");
+                writer.flush();
+            } catch (IOException e) {
+                throw new RuntimeException("Cannot write to gpioset for " + lineName, e);
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            try {
+                writer.write("exit\n");
+                writer.close();
+            } catch (IOException e) {
+                LOG.debug("Cannot write exit to gpioset for {}", lineName, e);
+            }
+            try {
+                if (!process.waitFor(1, TimeUnit.SECONDS)) {
+                    process.destroy();
+                }
+            } catch (InterruptedException e) {
+                process.destroy();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return lineName + " (pid " + process.pid() + ")";
+        }
+
+    }
+
+}
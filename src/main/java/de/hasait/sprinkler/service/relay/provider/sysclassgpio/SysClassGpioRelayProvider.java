@@ -27,6 +27,13 @@
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  *
@@ -43,6 +50,10 @@ public class SysClassGpioRelayProvider extends AbstractPinBasedRelayProvider {
     private static final String SYS_CLASS_GPIO_DIRECTION_FORMAT = "/sys/class/gpio/gpio{0}/direction";
     private static final String SYS_CLASS_GPIO_VALUE_FORMAT = "/sys/class/gpio/gpio{0}/value";
     private static final String GPIO_DIRECTION_OUT = "out";
+    private static final long READY_TIMEOUT_MILLIS = 5000;
+    private static final long READY_POLL_MILLIS = 5;
+    private static final byte[] VALUE_0 = "0\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] VALUE_1 = "1\n".getBytes(StandardCharsets.US_ASCII);
 
     private static String determineDisabledReason() {
         if (!new File(SYS_CLASS_GPIO_EXPORT).exists()) {
@@ -54,6 +65,11 @@ private static String determineDisabledReason() {
         return null;
     }
 
+    /**
+     * Value file of each initialized pin, kept open to avoid opening it for every change.
+     */
+    private final ConcurrentHashMap<String, FileChannel> valueChannels = new ConcurrentHashMap<>();
+
     public SysClassGpioRelayProvider() {
         super(PROVIDER_ID, determineDisabledReason());
     }
@@ -77,25 +93,71 @@ protected String validateConfigNonEmpty(@Nonnull String config) {
 
     @Override
     protected void changePin(String address, boolean active) {
-        String value = active ? "1" : "0";
-        echoInto(MessageFormatUtil.format(SYS_CLASS_GPIO_VALUE_FORMAT, address), value, 100);
+        FileChannel valueChannel = valueChannels.get(address);
+        if (valueChannel == null) {
+            throw new IllegalStateException("Pin not initialized: " + address);
+        }
+        LOG.debug("write {} into value of {}", active, address);
+        try {
+            valueChannel.write(ByteBuffer.wrap(active ? VALUE_1 : VALUE_0), 0);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     @Override
     protected boolean initPin(String address) {
-        echoInto(SYS_CLASS_GPIO_EXPORT, address, 2000);
-        echoInto(MessageFormatUtil.format(SYS_CLASS_GPIO_DIRECTION_FORMAT, address), GPIO_DIRECTION_OUT, 1000);
+        Path directionPath = Path.of(MessageFormatUtil.format(SYS_CLASS_GPIO_DIRECTION_FORMAT, address));
+        Path valuePath = Path.of(MessageFormatUtil.format(SYS_CLASS_GPIO_VALUE_FORMAT, address));
+        if (!Files.exists(directionPath)) {
+            echoInto(SYS_CLASS_GPIO_EXPORT, address);
+        }
+        // udev adjusts permissions of the exported files asynchronously
+        awaitWritable(directionPath);
+        echoInto(directionPath.toString(), GPIO_DIRECTION_OUT);
+        awaitWritable(valuePath);
+        try {
+            FileChannel oldValueChannel = valueChannels.put(address, FileChannel.open(valuePath, StandardOpenOption.WRITE));
+            if (oldValueChannel != null) {
+                oldValueChannel.close();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
         return false;
     }
 
     @Override
     protected void shutdown() {
-        pins.forEach((address, active) -> echoInto(SYS_CLASS_GPIO_UNEXPORT, address, 0));
+        valueChannels.forEach((address, valueChannel) -> {
+            try {
+                valueChannel.close();
+            } catch (IOException e) {
+                LOG.warn("Cannot close value of {}", address, e);
+            }
+        });
+        valueChannels.clear();
+        pins.forEach((address, active) -> echoInto(SYS_CLASS_GPIO_UNEXPORT, address));
 
         super.shutdown();
     }
 
-    private void echoInto(String path, String line, int sleepMillis) {
+    private void awaitWritable(Path path) {
+        long deadline = System.currentTimeMillis() + READY_TIMEOUT_MILLIS;
+        while (!Files.isWritable(path)) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new RuntimeException(path + " not writable after " + READY_TIMEOUT_MILLIS + "ms");
+            }
+            try {
+                Thread.sleep(READY_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for " + path, e);
+            }
+        }
+    }
+
+    private void echoInto(String path, String line) {
         LOG.debug("echo \"{}\" into \"{}\"", line, path);
         try (FileWriter fw = new FileWriter(path)) {
             fw.write(line);
@@ -104,13 +166,6 @@ private void echoInto(String path, String line, int sleepMillis) {
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
-        if (sleepMillis > 0) {
-            try {
-                Thread.sleep(sleepMillis);
-            } catch (InterruptedException e) {
-                // continue
-            }
-        }
     }
 
 }
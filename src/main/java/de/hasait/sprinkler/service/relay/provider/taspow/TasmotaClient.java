@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.relay.provider.taspow;
+
+import com.google.common.net.UrlEscapers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends Tasmota commands via HTTP using one shared {@link HttpClient}, which keeps connections per host alive.
+ * <p>Commands for the same host are sent one after another in submission order, different hosts are independent.</p>
+ * <p>Power changes for the same host within {@link #BATCH_WINDOW_MILLIS} are combined into one <code>Backlog</code> command.</p>
+ */
+@Service
+public class TasmotaClient {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TasmotaClient.class);
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 500;
+    private static final long BATCH_WINDOW_MILLIS = 50;
+
+    private final HttpClient httpClient;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, CompletableFuture<?>> lastCommandByHost = new ConcurrentHashMap<>();
+
+    private final Map<String, PowerBatch> pendingPowerBatchByHost = new HashMap<>();
+
+    public TasmotaClient(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.httpClient = HttpClient.newBuilder() //
+                .version(HttpClient.Version.HTTP_1_1) //
+                .connectTimeout(CONNECT_TIMEOUT) //
+                .build();
+    }
+
+    /**
+     * @return Future completed with the response body of the (possibly combined) command.
+     */
+    public CompletableFuture<String> setPower(String host, int index, boolean on) {
+        synchronized (pendingPowerBatchByHost) {
+            PowerBatch batch = pendingPowerBatchByHost.get(host);
+            if (batch == null) {
+                batch = new PowerBatch();
+                pendingPowerBatchByHost.put(host, batch);
+                CompletableFuture.delayedExecutor(BATCH_WINDOW_MILLIS, TimeUnit.MILLISECONDS).execute(() -> flushPowerBatch(host));
+            }
+            // a later change of the same index within the window replaces the earlier one
+            batch.valueByIndex.put(index, on ? "1" : "0");
+            return batch.result;
+        }
+    }
+
+    private void flushPowerBatch(String host) {
+        PowerBatch batch;
+        synchronized (pendingPowerBatchByHost) {
+            batch = pendingPowerBatchByHost.remove(host);
+        }
+        if (batch == null) {
+            return;
+        }
+        StringBuilder command = new StringBuilder();
+        batch.valueByIndex.forEach((index, value) -> {
+            if (!command.isEmpty()) {
+                command.append("; ");
+            }
+            command.append("Power").append(index).append(' ').append(value);
+        });
+        if (batch.valueByIndex.size() > 1) {
+            command.insert(0, "Backlog ");
+        }
+        sendCommand(host, command.toString()).whenComplete((body, e) -> {
+            if (e != null) {
+                batch.result.completeExceptionally(e);
+            } else {
+                batch.result.complete(body);
+            }
+        });
+    }
+
+    /**
+     * @return Future completed with the response body after the command and all previously submitted commands for the same host.
+     */
+    public CompletableFuture<String> sendCommand(String host, String command) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        CompletableFuture<?> previous = lastCommandByHost.put(host, result);
+        CompletableFuture<?> after = previous == null ? CompletableFuture.completedFuture(null) : previous;
+        after.handle((ignored, e) -> null) //
+                .thenCompose(ignored -> sendWithRetry(host, command, 1)) //
+                .whenComplete((body, e) -> {
+                    // unless a later command has been chained already, the host has nothing pending anymore
+                    lastCommandByHost.remove(host, result);
+                    if (e != null) {
+                        result.completeExceptionally(e instanceof CompletionException ? e.getCause() : e);
+                    } else {
+                        result.complete(body);
+                    }
+                });
+        return result;
+    }
+
+    int getHostsWithPendingCommands() {
+        return lastCommandByHost.size();
+    }
+
+    private CompletableFuture<String> sendWithRetry(String host, String command, int attempt) {
+        return send(host, command).handle((body, e) -> {
+            if (e == null) {
+                return CompletableFuture.completedFuture(body);
+            }
+            if (attempt >= MAX_ATTEMPTS) {
+                return CompletableFuture.<String>failedFuture(e instanceof CompletionException ? e.getCause() : e);
+            }
+            LOG.warn("{}: {} failed (attempt {}/{}) - retrying: {}", host, command, attempt, MAX_ATTEMPTS, e.toString());
+            return CompletableFuture.supplyAsync(() -> null, CompletableFuture.delayedExecutor(RETRY_DELAY_MILLIS * attempt, TimeUnit.MILLISECONDS)) //
+                    .thenCompose(ignored -> sendWithRetry(host, command, attempt + 1));
+        }).thenCompose(it -> it);
+    }
+
+    private CompletableFuture<String> send(String host, String command) {
+        URI uri = URI.create("http://" + host + "/cm?cmnd=" + UrlEscapers.urlFormParameterEscaper().escape(command).replace("+", "%20"));
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).GET().build();
+        LOG.debug("Sending {}...", uri);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).handle((response, e) -> {
+            String outcome = e != null ? e.getClass().getSimpleName() : Integer.toString(response.statusCode());
+            sample.stop(Timer.builder("sprinkler.tasmota.request") //
+                    .description("Tasmota command round trip") //
+                    .tag("host", host) //
+                    .tag("outcome", outcome) //
+                    .publishPercentileHistogram() //
+                    .register(meterRegistry));
+            if (e != null) {
+                throw e instanceof CompletionException ce ? ce : new CompletionException(e);
+            }
+            if (response.statusCode() != 200) {
+                throw new CompletionException(new RuntimeException("Unexpected status " + response.statusCode() + " from " + uri));
+            }
+            return response.body();
+        });
+    }
+
+    private static class PowerBatch {
+
+        private final Map<Integer, String> valueByIndex = new LinkedHashMap<>();
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+    }
+
+}
@@ -17,18 +17,15 @@
 package de.hasait.sprinkler.service.relay.provider.taspow;
 
 import de.hasait.sprinkler.service.relay.provider.AbstractPinBasedRelayProvider;
-import de.hasait.common.util.MessageFormatUtil;
 import de.hasait.common.util.Util;
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.io.IOException;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  *
@@ -41,10 +38,15 @@ public class TasmotaPowerRelayProvider extends AbstractPinBasedRelayProvider {
     private static final Logger LOG = LoggerFactory.getLogger(TasmotaPowerRelayProvider.class);
 
     private static final String EXPECTED_CONFIG_MESSAGE = "Expected: <host or ip>;<int index>";
-    private static final String SET_STATE_URL = "http://{0}/cm?cmnd=Power{1}%20{2}";
 
-    public TasmotaPowerRelayProvider() {
+    private final TasmotaClient client;
+
+    private final Map<String, String> failureByAddress = new ConcurrentHashMap<>();
+
+    public TasmotaPowerRelayProvider(TasmotaClient client) {
         super(PROVIDER_ID, null);
+
+        this.client = client;
     }
 
     @Nonnull
@@ -64,24 +66,48 @@ protected String validateConfigNonEmpty(@Nonnull String config) {
         return null;
     }
 
+    /**
+     * The last failure switching the relay, until switching succeeds again.
+     */
+    @Nullable
+    @Override
+    public String getConfigInfo(@Nonnull String config) {
+        return failureByAddress.get(config.trim());
+    }
+
+    /**
+     * Only submits the change, so a slow device does not block switching of other relays; a failure rolls the pin back.
+     */
     @Override
     protected void changePin(String address, boolean active) {
-        String value = active ? "1" : "0";
-        Configuration configuration = parseConfig(address);
-        String url = MessageFormatUtil.format(SET_STATE_URL, configuration.host, configuration.index, value);
-        try {
-            IOUtils.toString(new URL(url), StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        submitPower(address, active, true);
     }
 
     @Override
     protected boolean initPin(String address) {
-        changePin(address, false);
+        submitPower(address, false, false);
         return false;
     }
 
+    private void submitPower(String address, boolean active, boolean transition) {
+        Configuration configuration = parseConfig(address);
+        // the client completes the future after the batch window on another thread, never within changePin
+        client.setPower(configuration.getHost(), configuration.getIndex(), active).whenComplete((response, e) -> {
+            if (e != null) {
+                LOG.error("{}: Power {} failed", address, active, e);
+                failureByAddress.put(address, "Power " + (active ? "on" : "off") + " failed: " + e.getMessage());
+                if (transition) {
+                    changePinFailed(address, active);
+                } else {
+                    forgetPin(address, active);
+                }
+            } else {
+                LOG.debug("{}: Power {} -> {}", address, active, response);
+                failureByAddress.remove(address);
+            }
+        });
+    }
+
     private Configuration parseConfig(@Nonnull String config) {
         String trimmedConfig = config.trim();
         if (trimmedConfig.contains("\n")) {
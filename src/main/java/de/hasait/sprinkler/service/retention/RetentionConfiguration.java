@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.retention;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "sprinkler.retention")
+public class RetentionConfiguration {
+
+    /**
+     * How long sensor values are kept.
+     */
+    private Duration sensorValues = Duration.ofDays(61);
+
+    /**
+     * Overrides sensorValues for single sensors, key is the sensor name.
+     */
+    private Map<String, Duration> sensorValuesBySensor = new HashMap<>();
+
+    /**
+     * How long hourly and daily aggregates of sensor values are kept.
+     */
+    private Duration sensorValueRollups = Duration.ofDays(10 * 366);
+
+    /**
+     * How long schedule log entries are kept.
+     */
+    private Duration scheduleLogs = Duration.ofDays(61);
+
+    /**
+     * Pause between two sweeps.
+     */
+    private Duration interval = Duration.ofHours(1);
+
+    /**
+     * Maximum number of rows deleted per transaction.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Pause between two chunks, giving other transactions a chance to get the lock.
+     */
+    private Duration chunkPause = Duration.ofMillis(100);
+
+    public Duration getSensorValues() {
+        return sensorValues;
+    }
+
+    public void setSensorValues(Duration sensorValues) {
+        this.sensorValues = sensorValues;
+    }
+
+    public Map<String, Duration> getSensorValuesBySensor() {
+        return sensorValuesBySensor;
+    }
+
+    public void setSensorValuesBySensor(Map<String, Duration> sensorValuesBySensor) {
+        this.sensorValuesBySensor = sensorValuesBySensor;
+    }
+
+    public Duration getSensorValueRollups() {
+        return sensorValueRollups;
+    }
+
+    public void setSensorValueRollups(Duration sensorValueRollups) {
+        this.sensorValueRollups = sensorValueRollups;
+    }
+
+    public Duration getScheduleLogs() {
+        return scheduleLogs;
+    }
+
+    public void setScheduleLogs(Duration scheduleLogs) {
+        this.scheduleLogs = scheduleLogs;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public Duration getChunkPause() {
+        return chunkPause;
+    }
+
+    public void setChunkPause(Duration chunkPause) {
+        this.chunkPause = chunkPause;
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.retention;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.hasait.sprinkler.domain.schedule.ScheduleLogRepository;
+import de.hasait.sprinkler.domain.sensor.SensorPO;
+import de.hasait.sprinkler.domain.sensor.SensorRepository;
+import de.hasait.sprinkler.domain.sensor.SensorValueRepository;
+import de.hasait.sprinkler.domain.sensor.SensorValueRollupRepository;
+import de.hasait.sprinkler.service.sensor.SensorService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Deletes old sensor values, their rollups and schedule logs in chunks on its own low priority thread, so inserts do not have to.
+ */
+@Service
+@EnableConfigurationProperties(RetentionConfiguration.class)
+public class RetentionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RetentionService.class);
+
+    private static final Duration INITIAL_DELAY = Duration.ofMinutes(1);
+
+    private final RetentionConfiguration configuration;
+    private final SensorRepository sensorRepository;
+    private final SensorValueRepository sensorValueRepository;
+    private final SensorValueRollupRepository sensorValueRollupRepository;
+    private final ScheduleLogRepository scheduleLogRepository;
+    private final SensorService sensorService;
+    private final Clock clock;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder() //
+            .setNameFormat("Retention") //
+            .setDaemon(true) //
+            .setPriority(Thread.MIN_PRIORITY) //
+            .build());
+
+    public RetentionService(RetentionConfiguration configuration, SensorRepository sensorRepository, SensorValueRepository sensorValueRepository, SensorValueRollupRepository sensorValueRollupRepository, ScheduleLogRepository scheduleLogRepository, SensorService sensorService, Clock clock) {
+        this.configuration = configuration;
+        this.sensorRepository = sensorRepository;
+        this.sensorValueRepository = sensorValueRepository;
+        this.sensorValueRollupRepository = sensorValueRollupRepository;
+        this.scheduleLogRepository = scheduleLogRepository;
+        this.sensorService = sensorService;
+        this.clock = clock;
+    }
+
+    /**
+     * Before application runners, which may block, e.g. the load test.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        LOG.info("Sweeping every {}", configuration.getInterval());
+        executor.scheduleWithFixedDelay(this::sweep, INITIAL_DELAY.toMillis(), configuration.getInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void sweep() {
+        try {
+            LocalDateTime now = LocalDateTime.now(clock);
+            for (SensorPO sensorPO : sensorRepository.findAll()) {
+                Duration retention = configuration.getSensorValuesBySensor().getOrDefault(sensorPO.getName(), configuration.getSensorValues());
+                LocalDateTime before = now.minus(retention);
+                if (deleteInChunks("sensor " + sensorPO.getName(), pageable -> sensorValueRepository.findIdsBySensorBefore(sensorPO, before, pageable), sensorValueRepository::deleteAllByIdInBatch) > 0) {
+                    sensorService.evict(sensorPO.getId());
+                }
+            }
+            LocalDateTime rollupsBefore = now.minus(configuration.getSensorValueRollups());
+            deleteInChunks("sensor value rollups", pageable -> sensorValueRollupRepository.findIdsBefore(rollupsBefore, pageable), sensorValueRollupRepository::deleteAllByIdInBatch);
+            LocalDateTime scheduleLogsBefore = now.minus(configuration.getScheduleLogs());
+            deleteInChunks("schedule log", pageable -> scheduleLogRepository.findIdsBefore(scheduleLogsBefore, pageable), scheduleLogRepository::deleteAllByIdInBatch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            LOG.warn("Sweep failed", e);
+        }
+    }
+
+    private long deleteInChunks(String what, Function<Pageable, List<Long>> idsFinder, Consumer<List<Long>> idsDeleter) throws InterruptedException {
+        Pageable firstChunk = PageRequest.of(0, configuration.getChunkSize());
+        long deleted = 0;
+        List<Long> ids;
+        while (!(ids = idsFinder.apply(firstChunk)).isEmpty()) {
+            idsDeleter.accept(ids);
+            deleted += ids.size();
+            if (ids.size() < configuration.getChunkSize()) {
+                break;
+            }
+            Thread.sleep(configuration.getChunkPause().toMillis());
+        }
+        if (deleted > 0) {
+            LOG.info("Deleted {} rows of {}", deleted, what);
+        }
+        return deleted;
+    }
+
+}
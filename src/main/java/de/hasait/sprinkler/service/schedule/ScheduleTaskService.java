@@ -20,15 +20,19 @@
 import de.hasait.sprinkler.domain.schedule.ScheduleLogRepository;
 import de.hasait.sprinkler.domain.schedule.SchedulePO;
 import de.hasait.sprinkler.domain.schedule.ScheduleRepository;
+import de.hasait.sprinkler.service.event.EventService;
+import de.hasait.sprinkler.service.relay.RelayActivation;
 import de.hasait.sprinkler.service.relay.RelayService;
+import de.hasait.common.service.CronTimeline;
 import de.hasait.common.util.Util;
 import de.hasait.common.util.ValueWithExplanation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.TaskScheduler;
-import org.springframework.scheduling.support.CronTrigger;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -44,18 +48,32 @@ public class ScheduleTaskService {
     private final ScheduleRepository repository;
     private final ScheduleLogRepository scheduleLogRepository;
     private final ScheduleService scheduleService;
-    private final TaskScheduler taskScheduler;
+    private final CronTimeline cronTimeline;
     private final RelayService relayService;
+    private final EventService eventService;
+    private final Clock clock;
+    private final Timer latenessTimer;
+    private final Timer handlingTimer;
     private final ConcurrentHashMap<Long, List<ScheduledFuture<?>>> scheduledFutures = new ConcurrentHashMap<>();
 
-    public ScheduleTaskService(ScheduleRepository repository, ScheduleLogRepository scheduleLogRepository, ScheduleService scheduleService, TaskScheduler taskScheduler, RelayService relayService) {
+    public ScheduleTaskService(ScheduleRepository repository, ScheduleLogRepository scheduleLogRepository, ScheduleService scheduleService, CronTimeline cronTimeline, RelayService relayService, EventService eventService, Clock clock, MeterRegistry meterRegistry) {
         super();
 
         this.repository = repository;
         this.scheduleLogRepository = scheduleLogRepository;
         this.scheduleService = scheduleService;
-        this.taskScheduler = taskScheduler;
+        this.cronTimeline = cronTimeline;
         this.relayService = relayService;
+        this.eventService = eventService;
+        this.clock = clock;
+        this.latenessTimer = Timer.builder("sprinkler.schedule.lateness") //
+                .description("Delay between cron fire time and start of schedule execution") //
+                .publishPercentileHistogram() //
+                .register(meterRegistry);
+        this.handlingTimer = Timer.builder("sprinkler.schedule.handling") //
+                .description("Wall-clock time to start or skip a schedule, also if time is simulated") //
+                .publishPercentileHistogram() //
+                .register(meterRegistry);
 
         SchedulePOListener.scheduleTaskService = this;
 
@@ -83,6 +101,7 @@ public void preRemoveSchedulePO(SchedulePO po) {
     private void cancelScheduledTask(long scheduleId) {
         LOG.debug("cancelScheduledTask {}...", scheduleId);
 
+        cronTimeline.unregister(cronTimelineKey(scheduleId));
         List<ScheduledFuture<?>> oldSchedules = scheduledFutures.remove(scheduleId);
         if (oldSchedules != null) {
             oldSchedules.forEach(it -> it.cancel(true));
@@ -98,11 +117,12 @@ private void createOrUpdateScheduledTask(SchedulePO po) {
         String cronExpression = po.getCronExpression();
         if (enabled && cronExpression != null) {
             long durationMillis = po.determineDurationMillis();
-            CronTrigger cronTrigger = new CronTrigger(cronExpression);
-            SprinklerWithSensorTask task = new SprinklerWithSensorTask(scheduleId);
-            registerScheduledFuture(scheduleId, taskScheduler.schedule(task, cronTrigger));
+            cronTimeline.register(cronTimelineKey(scheduleId), cronExpression, planned -> {
+                latenessTimer.record(Duration.between(planned, clock.instant()));
+                handlingTimer.record(() -> executeSchedule(scheduleId));
+            });
 
-            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime now = LocalDateTime.now(clock);
             LocalDateTime previousSeed = now.minus(durationMillis, ChronoUnit.MILLIS);
             LocalDateTime previousStart = Util.determineNext(cronExpression, previousSeed);
             if (previousStart.isBefore(now)) {
@@ -115,6 +135,10 @@ private void createOrUpdateScheduledTask(SchedulePO po) {
         }
     }
 
+    private static String cronTimelineKey(long scheduleId) {
+        return "schedule-" + scheduleId;
+    }
+
     private void registerScheduledFuture(long scheduleId, ScheduledFuture<?> scheduledFuture) {
         LOG.debug("registerScheduledFuture {}...", scheduleId);
         Util.registerScheduledFuture(scheduleId, scheduledFuture, scheduledFutures);
@@ -122,38 +146,28 @@ private void registerScheduledFuture(long scheduleId, ScheduledFuture<?> schedul
 
     public void executeSchedule(long scheduleId) {
         SchedulePO schedulePO = repository.findById(scheduleId).orElseThrow();
+        String relayName = schedulePO.getRelay().getName();
         ValueWithExplanation<Long> durationMillisSensor = scheduleService.determineDurationMillisSensor(schedulePO);
         if (durationMillisSensor.getValue() <= 0) {
             if (LOG.isInfoEnabled()) {
-                LOG.info("{} skipped: {}", schedulePO.getRelay().getName(), durationMillisSensor.getExplanation());
+                LOG.info("{} skipped: {}", relayName, durationMillisSensor.getExplanation());
             }
+            eventService.scheduleSkipped(scheduleId, relayName, durationMillisSensor.getExplanation());
             return;
         }
 
         ScheduleLogPO scheduleLog = new ScheduleLogPO();
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = LocalDateTime.now(clock);
         scheduleLog.setStart(now);
         scheduleLog.setSchedule(schedulePO);
-        scheduleLog.setRelayName(schedulePO.getRelay().getName());
+        scheduleLog.setRelayName(relayName);
         scheduleLog.setDurationMillis(durationMillisSensor.getValue());
         scheduleLogRepository.save(scheduleLog);
-        scheduleLogRepository.deleteAllBefore(now.minusMonths(2));
-
-        registerScheduledFuture(scheduleId, relayService.scheduleNow(schedulePO.getRelay().getId(), durationMillisSensor.getValue(), durationMillisSensor.getExplanation()));
-    }
-
-    private class SprinklerWithSensorTask implements Runnable {
 
-        private final long scheduleId;
-
-        public SprinklerWithSensorTask(long scheduleId) {
-            this.scheduleId = scheduleId;
-        }
-
-        @Override
-        public void run() {
-            executeSchedule(scheduleId);
-        }
+        RelayActivation activation = relayService.scheduleNow(schedulePO.getRelay().getId(), durationMillisSensor.getValue(), durationMillisSensor.getExplanation());
+        registerScheduledFuture(scheduleId, activation);
+        eventService.scheduleStarted(scheduleId, relayName, durationMillisSensor.getValue(), durationMillisSensor.getExplanation());
+        activation.whenDone().whenComplete((ignored, e) -> eventService.scheduleFinished(scheduleId, relayName, activation.isCancelled()));
     }
 
 }
@@ -23,21 +23,32 @@
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Latest values per sensor are kept in memory: loaded once per sensor and then updated by {@link SensorValueWriter} for each value it has saved.
+ */
 @Service
 public class SensorService {
 
     private static final Logger LOG = LoggerFactory.getLogger(SensorService.class);
 
+    private static final int LAST_VALUES_LIMIT = 2;
+
     private final SensorValueRepository valueRepository;
 
+    private final ConcurrentHashMap<Long, List<SensorValuePO>> lastValuesBySensorId = new ConcurrentHashMap<>();
+
     public SensorService(SensorValueRepository valueRepository) {
         this.valueRepository = valueRepository;
     }
 
     public int determineChange(SensorPO sensorPO) {
-        List<SensorValuePO> list = valueRepository.findTop2BySensorOrderByIdDesc(sensorPO);
+        List<SensorValuePO> list = getLastValues(sensorPO);
         if (list.size() < 2) {
             return 0;
         }
@@ -49,8 +60,39 @@ public int determineChange(SensorPO sensorPO) {
         return dv;
     }
 
+    /**
+     * @return Newest value first.
+     */
     public List<SensorValuePO> getLastValues(SensorPO sensorPO) {
-        return valueRepository.findTop2BySensorOrderByIdDesc(sensorPO);
+        if (sensorPO.getId() == null) {
+            return Collections.emptyList();
+        }
+        return lastValuesBySensorId.computeIfAbsent(sensorPO.getId(), ignored -> {
+            LOG.debug("Loading last values of sensor {}...", sensorPO.getName());
+            return Collections.unmodifiableList(valueRepository.findTop2BySensorOrderByIdDesc(sensorPO));
+        });
+    }
+
+    /**
+     * Must be called after a new value was saved.
+     */
+    public void addValue(@Nonnull SensorValuePO sensorValuePO) {
+        lastValuesBySensorId.computeIfPresent(sensorValuePO.getSensor().getId(), (ignored, oldValues) -> {
+            if (!oldValues.isEmpty() && oldValues.get(0).getId().equals(sensorValuePO.getId())) {
+                // already loaded from the database
+                return oldValues;
+            }
+            List<SensorValuePO> newValues = new ArrayList<>(LAST_VALUES_LIMIT);
+            newValues.add(sensorValuePO);
+            for (int i = 0; i < oldValues.size() && newValues.size() < LAST_VALUES_LIMIT; i++) {
+                newValues.add(oldValues.get(i));
+            }
+            return Collections.unmodifiableList(newValues);
+        });
+    }
+
+    public void evict(long sensorId) {
+        lastValuesBySensorId.remove(sensorId);
     }
 
 }
@@ -16,53 +16,114 @@
 
 package de.hasait.sprinkler.service.sensor;
 
+import de.hasait.sprinkler.SchedulerConfiguration;
 import de.hasait.sprinkler.domain.sensor.SensorPO;
 import de.hasait.sprinkler.domain.sensor.SensorRepository;
 import de.hasait.sprinkler.domain.sensor.SensorValuePO;
-import de.hasait.sprinkler.domain.sensor.SensorValueRepository;
 import de.hasait.sprinkler.service.sensor.provider.SensorProviderService;
 import de.hasait.sprinkler.service.sensor.provider.SensorValue;
 import de.hasait.sprinkler.service.sensor.publish.SensorValuePublisher;
-import de.hasait.common.util.Util;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.hasait.common.service.CronTimeline;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.TaskScheduler;
-import org.springframework.scheduling.support.CronTrigger;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledFuture;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sensors due at the same instant are read concurrently on a dedicated pool, limited per provider by {@link SensorProviderService}.
+ * <p>The pool follows {@link SchedulerConfiguration}: a bounded number of platform threads, or a virtual thread per read.
+ * Reads beyond its bounded capacity are skipped until the next cron tick. With simulated time, reads run on the TaskScheduler
+ * instead, so that they see the simulated instant they were due at.</p>
+ * <p>The TaskScheduler thread only hands the read over, so one slow sensor does not delay the others.
+ * Asynchronous providers only occupy a pool thread until their query is handed over.</p>
+ */
 @Service
 public class SensorTaskService {
 
     private static final Logger LOG = LoggerFactory.getLogger(SensorTaskService.class);
 
     private final SensorRepository repository;
-    private final SensorValueRepository valueRepository;
 
     private final SensorProviderService providerService;
 
-    private final TaskScheduler taskScheduler;
+    private final SensorService sensorService;
+
+    private final SensorValueWriter sensorValueWriter;
 
-    private final ConcurrentHashMap<Long, List<ScheduledFuture<?>>> scheduledFutures = new ConcurrentHashMap<>();
+    private final CronTimeline cronTimeline;
 
     private final SensorValuePublisher sensorValuePublisher;
 
-    public SensorTaskService(SensorRepository repository, SensorValueRepository valueRepository, SensorProviderService providerService, TaskScheduler taskScheduler, SensorValuePublisher sensorValuePublisher) {
+    private final Executor readExecutor;
+
+    private final AtomicInteger pendingReadCount = new AtomicInteger();
+
+    public SensorTaskService(SensorRepository repository, SensorProviderService providerService, SensorService sensorService, SensorValueWriter sensorValueWriter, CronTimeline cronTimeline, SensorValuePublisher sensorValuePublisher, SchedulerConfiguration schedulerConfiguration, TaskScheduler taskScheduler) {
         this.repository = repository;
-        this.valueRepository = valueRepository;
         this.providerService = providerService;
-        this.taskScheduler = taskScheduler;
+        this.sensorService = sensorService;
+        this.sensorValueWriter = sensorValueWriter;
+        this.cronTimeline = cronTimeline;
         this.sensorValuePublisher = sensorValuePublisher;
 
+        this.readExecutor = createReadExecutor(schedulerConfiguration, taskScheduler);
+
         SensorPOListener.sensorTaskService = this;
 
         repository.findAll().forEach(this::createOrUpdateScheduledTask);
     }
 
+    private static Executor createReadExecutor(SchedulerConfiguration schedulerConfiguration, TaskScheduler taskScheduler) {
+        if (schedulerConfiguration.isSimulated()) {
+            return task -> taskScheduler.schedule(task, taskScheduler.getClock().instant());
+        }
+
+        if (schedulerConfiguration.isVirtualThreads()) {
+            SimpleAsyncTaskExecutor simpleAsyncTaskExecutor = new SimpleAsyncTaskExecutor("SensorRead-");
+            simpleAsyncTaskExecutor.setVirtualThreads(true);
+            simpleAsyncTaskExecutor.setConcurrencyLimit(schedulerConfiguration.getSensorReadQueueCapacity());
+            simpleAsyncTaskExecutor.setRejectTasksWhenLimitReached(true);
+            return simpleAsyncTaskExecutor;
+        }
+
+        int threads = schedulerConfiguration.getSensorReadThreads();
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES, new ArrayBlockingQueue<>(schedulerConfiguration.getSensorReadQueueCapacity()), new ThreadFactoryBuilder() //
+                .setNameFormat("SensorRead-%d") //
+                .setDaemon(true) //
+                .build());
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (readExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        } else if (readExecutor instanceof SimpleAsyncTaskExecutor simpleAsyncTaskExecutor) {
+            simpleAsyncTaskExecutor.close();
+        }
+    }
+
+    /**
+     * @return Reads submitted but not finished yet, including asynchronous reads in progress.
+     */
+    public int getPendingReadCount() {
+        return pendingReadCount.get();
+    }
+
     public void postPersistSchedulePO(SensorPO po) {
         LOG.debug("postPersistSchedulePO: {}", po);
 
@@ -79,20 +140,17 @@ public void preRemoveSchedulePO(SensorPO po) {
         LOG.debug("preRemoveSchedulePO: {}", po);
 
         cancelScheduledTask(po.getId());
+        sensorService.evict(po.getId());
     }
 
     private void cancelScheduledTask(long sensorId) {
         LOG.debug("cancelScheduledTask {}...", sensorId);
 
-        List<ScheduledFuture<?>> oldSchedules = scheduledFutures.remove(sensorId);
-        if (oldSchedules != null) {
-            oldSchedules.forEach(it -> it.cancel(true));
-        }
+        cronTimeline.unregister(cronTimelineKey(sensorId));
     }
 
-    private void registerScheduledFuture(long sensorId, ScheduledFuture<?> scheduledFuture) {
-        LOG.debug("registerScheduledFuture {}...", sensorId);
-        Util.registerScheduledFuture(sensorId, scheduledFuture, scheduledFutures);
+    private static String cronTimelineKey(long sensorId) {
+        return "sensor-" + sensorId;
     }
 
     private void createOrUpdateScheduledTask(SensorPO po) {
@@ -103,25 +161,65 @@ private void createOrUpdateScheduledTask(SensorPO po) {
         boolean enabled = true;
         String cronExpression = po.getCronExpression();
         if (enabled && cronExpression != null) {
-            CronTrigger cronTrigger = new CronTrigger(cronExpression);
-            ReadAndSaveSensorValueTask task = new ReadAndSaveSensorValueTask(sensorId);
-            registerScheduledFuture(sensorId, taskScheduler.schedule(task, cronTrigger));
+            cronTimeline.register(cronTimelineKey(sensorId), cronExpression, planned -> submitRead(sensorId));
         }
     }
 
-    private void readAndSaveSensorValue(long sensorId) {
-        SensorPO sensorPO = repository.findById(sensorId).orElseThrow();
-        LOG.debug("Reading sensor {}...", sensorPO.getName());
-        SensorValue sensorValue = providerService.obtainValue(sensorPO.getProviderId(), sensorPO.getProviderConfig());
+    private void submitRead(long sensorId) {
+        pendingReadCount.incrementAndGet();
+        try {
+            readExecutor.execute(() -> readAndSaveSensorValue(sensorId).whenComplete((ignored, e) -> pendingReadCount.decrementAndGet()));
+        } catch (RejectedExecutionException e) {
+            pendingReadCount.decrementAndGet();
+            LOG.warn("Too many sensor reads pending - skipping sensor {}", sensorId);
+        }
+    }
 
+    /**
+     * @return Future completed after the value was handed over or the read failed.
+     */
+    private CompletableFuture<?> readAndSaveSensorValue(long sensorId) {
+        try {
+            SensorPO sensorPO = repository.findById(sensorId).orElseThrow();
+            LOG.debug("Reading sensor {}...", sensorPO.getName());
+            return providerService.obtainValueAsync(sensorPO.getProviderId(), sensorPO.getProviderConfig()).whenComplete((sensorValue, e) -> {
+                if (e != null) {
+                    LOG.warn("Reading sensor {} failed", sensorId, e);
+                    return;
+                }
+                if (sensorValue.isStale()) {
+                    // already stored by the read which obtained it
+                    LOG.info("Sensor {} returned stale value {} - not saved", sensorPO.getName(), sensorValue);
+                    return;
+                }
+                try {
+                    saveSensorValue(sensorPO, sensorValue);
+                } catch (RuntimeException e2) {
+                    LOG.warn("Saving value of sensor {} failed", sensorId, e2);
+                }
+            });
+        } catch (RuntimeException e) {
+            LOG.warn("Reading sensor {} failed", sensorId, e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Runs on the thread completing the read, which is not the read pool for asynchronous providers.
+     */
+    private void saveSensorValue(SensorPO sensorPO, SensorValue sensorValue) {
         SensorValuePO sensorValuePO = new SensorValuePO();
         sensorValuePO.setSensor(sensorPO);
         LocalDateTime dateTime = sensorValue.getDateTime();
         sensorValuePO.setDateTime(dateTime);
         int value = sensorValue.getValue();
         sensorValuePO.setIntValue(value);
-        valueRepository.saveAndFlush(sensorValuePO);
-        valueRepository.deleteAllBefore(LocalDateTime.now().minusMonths(2));
+        try {
+            sensorValueWriter.submit(sensorValuePO);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
 
         try {
             sensorValuePublisher.publish(sensorValuePO);
@@ -129,21 +227,7 @@ private void readAndSaveSensorValue(long sensorId) {
             LOG.warn("SensorValuePublisher failed to publish", e);
         }
 
-        LOG.debug("Saved sensor value {} from {}", value, dateTime);
-    }
-
-    private class ReadAndSaveSensorValueTask implements Runnable {
-
-        private final long sensorId;
-
-        public ReadAndSaveSensorValueTask(long sensorId) {
-            this.sensorId = sensorId;
-        }
-
-        @Override
-        public void run() {
-            readAndSaveSensorValue(sensorId);
-        }
+        LOG.debug("Submitted sensor value {} from {}", value, dateTime);
     }
 
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.sensor;
+
+import de.hasait.sprinkler.domain.sensor.SensorPO;
+import de.hasait.sprinkler.domain.sensor.SensorValuePO;
+import de.hasait.sprinkler.domain.sensor.SensorValueRollupPO;
+import de.hasait.sprinkler.domain.sensor.SensorValueRollupRepository;
+import de.hasait.sprinkler.domain.sensor.SensorValueRollupResolution;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Nonnull;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains hourly and daily min/max/avg of sensor values, which are kept much longer than the raw values.
+ * <p>They are shown in the Sensor Value Rollups view.</p>
+ */
+@Service
+public class SensorValueRollupService {
+
+    private final SensorValueRollupRepository repository;
+
+    public SensorValueRollupService(SensorValueRollupRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Must be called once for each new value, in the transaction saving it.
+     */
+    public synchronized void addValues(@Nonnull List<SensorValuePO> sensorValuePOs) {
+        Map<String, SensorValueRollupPO> rollupPOs = new LinkedHashMap<>();
+        for (SensorValuePO sensorValuePO : sensorValuePOs) {
+            SensorPO sensorPO = sensorValuePO.getSensor();
+            for (SensorValueRollupResolution resolution : SensorValueRollupResolution.values()) {
+                LocalDateTime periodStart = resolution.determinePeriodStart(sensorValuePO.getDateTime());
+                String key = sensorPO.getId() + "/" + resolution + "/" + periodStart;
+                SensorValueRollupPO rollupPO = rollupPOs.computeIfAbsent(key, ignored -> repository.findBySensorAndResolutionAndPeriodStart(sensorPO, resolution, periodStart).orElseGet(() -> {
+                    SensorValueRollupPO newRollupPO = new SensorValueRollupPO();
+                    newRollupPO.setSensor(sensorPO);
+                    newRollupPO.setResolution(resolution);
+                    newRollupPO.setPeriodStart(periodStart);
+                    return newRollupPO;
+                }));
+                rollupPO.addValue(sensorValuePO.getIntValue());
+            }
+        }
+        repository.saveAll(rollupPOs.values());
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.sensor;
+
+import de.hasait.sprinkler.domain.sensor.SensorValuePO;
+import de.hasait.sprinkler.domain.sensor.SensorValueRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind of sensor values: callers only enqueue, a single writer thread saves them in batches.
+ * <p>Callers block only if the queue is full. Remaining values are written on shutdown.</p>
+ * <p>A failed batch is retried a few times, then its values are saved one by one, so only failing values get lost.</p>
+ * <p>Values and their rollups are saved in the same transaction, so rollups never miss or double count a saved value.</p>
+ */
+@Service
+public class SensorValueWriter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SensorValueWriter.class);
+
+    private static final int QUEUE_CAPACITY = 10000;
+    /**
+     * Same as <code>hibernate.jdbc.batch_size</code>.
+     */
+    private static final int BATCH_SIZE = 50;
+    private static final int BATCH_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 500;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000;
+
+    private final SensorValueRepository valueRepository;
+    private final SensorService sensorService;
+    private final SensorValueRollupService rollupService;
+    private final TransactionOperations transactionOperations;
+    private final Counter droppedCounter;
+
+    private final BlockingQueue<SensorValuePO> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writerThread = new Thread(this::run, "SensorValueWriter");
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private volatile boolean running = true;
+
+    public SensorValueWriter(SensorValueRepository valueRepository, SensorService sensorService, SensorValueRollupService rollupService, TransactionOperations transactionOperations, MeterRegistry meterRegistry) {
+        this.valueRepository = valueRepository;
+        this.sensorService = sensorService;
+        this.rollupService = rollupService;
+        this.transactionOperations = transactionOperations;
+        this.droppedCounter = Counter.builder("sprinkler.sensor.writer.dropped") //
+                .description("Sensor values that could not be saved") //
+                .register(meterRegistry);
+        Gauge.builder("sprinkler.sensor.writer.queue", this, SensorValueWriter::getQueueSize) //
+                .description("Sensor values waiting to be written") //
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writerThread.start();
+    }
+
+    public void submit(@Nonnull SensorValuePO sensorValuePO) throws InterruptedException {
+        pendingCount.incrementAndGet();
+        if (!queue.offer(sensorValuePO)) {
+            LOG.warn("Queue full - waiting for writer");
+            try {
+                queue.put(sensorValuePO);
+            } catch (InterruptedException e) {
+                pendingCount.decrementAndGet();
+                throw e;
+            }
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * @return Values submitted but not written yet, including the batch being written.
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writerThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        if (writerThread.isAlive()) {
+            LOG.warn("Writer did not finish in time - {} values lost", queue.size());
+            writerThread.interrupt();
+        }
+    }
+
+    private void run() {
+        List<SensorValuePO> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                SensorValuePO first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOG.error("Processing {} saved values failed", batch.size(), e);
+            } finally {
+                pendingCount.addAndGet(-batch.size());
+                batch.clear();
+            }
+        }
+        LOG.debug("Writer finished");
+    }
+
+    private void write(List<SensorValuePO> batch) throws InterruptedException {
+        List<SensorValuePO> saved = saveBatch(batch);
+        saved.forEach(sensorService::addValue);
+        LOG.debug("Saved {} sensor values", saved.size());
+    }
+
+    private List<SensorValuePO> saveBatch(List<SensorValuePO> batch) throws InterruptedException {
+        for (int attempt = 1; attempt <= BATCH_ATTEMPTS; attempt++) {
+            try {
+                save(batch);
+                return batch;
+            } catch (RuntimeException e) {
+                LOG.warn("Saving {} values failed (attempt {}/{})", batch.size(), attempt, BATCH_ATTEMPTS, e);
+                resetIds(batch);
+            }
+            if (attempt < BATCH_ATTEMPTS) {
+                Thread.sleep(RETRY_DELAY_MILLIS * attempt);
+            }
+        }
+
+        List<SensorValuePO> saved = new ArrayList<>(batch.size());
+        for (SensorValuePO sensorValuePO : batch) {
+            try {
+                save(List.of(sensorValuePO));
+                saved.add(sensorValuePO);
+            } catch (RuntimeException e) {
+                droppedCounter.increment();
+                LOG.error("Dropping value {} of sensor {} at {}", sensorValuePO.getIntValue(), sensorValuePO.getSensor().getId(), sensorValuePO.getDateTime(), e);
+            }
+        }
+        return saved;
+    }
+
+    private void save(List<SensorValuePO> sensorValuePOs) {
+        transactionOperations.executeWithoutResult(status -> {
+            valueRepository.saveAll(sensorValuePOs);
+            rollupService.addValues(sensorValuePOs);
+        });
+    }
+
+    /**
+     * The rolled back transaction may have assigned ids already, which would turn the next save into a merge.
+     */
+    private static void resetIds(List<SensorValuePO> batch) {
+        for (SensorValuePO sensorValuePO : batch) {
+            sensorValuePO.setId(null);
+            sensorValuePO.setVersion(0);
+        }
+    }
+
+}
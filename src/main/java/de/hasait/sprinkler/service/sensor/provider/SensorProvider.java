@@ -19,6 +19,7 @@
 import de.hasait.common.service.Provider;
 
 import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
 
 /**
  *
@@ -27,4 +28,31 @@ public interface SensorProvider extends Provider {
 
     SensorValue obtainValue(@Nonnull String config);
 
+    /**
+     * Providers waiting for remote services should override this, so that no thread is blocked while waiting.
+     *
+     * @return By default the result of {@link #obtainValue(String)} called on the calling thread.
+     */
+    default CompletableFuture<SensorValue> obtainValueAsync(@Nonnull String config) {
+        try {
+            return CompletableFuture.completedFuture(obtainValue(config));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * @return Maximum number of reads in progress at the same time.
+     */
+    default int getMaxConcurrentReads() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return Maximum rate of reads, zero for unlimited.
+     */
+    default double getMaxReadsPerSecond() {
+        return 0;
+    }
+
 }
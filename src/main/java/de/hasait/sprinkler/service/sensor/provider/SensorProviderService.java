@@ -16,22 +16,105 @@
 
 package de.hasait.sprinkler.service.sensor.provider;
 
+import com.google.common.util.concurrent.RateLimiter;
 import de.hasait.common.service.AbstractProviderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
 /**
- *
+ * Enforces {@link SensorProvider#getMaxConcurrentReads()} and {@link SensorProvider#getMaxReadsPerSecond()}.
  */
 @Service
 public class SensorProviderService extends AbstractProviderService<SensorProvider> {
 
-    public SensorProviderService(SensorProvider[] providers) {
+    private final Map<String, Semaphore> readPermitsByProviderId = new HashMap<>();
+    private final Map<String, RateLimiter> rateLimiterByProviderId = new HashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public SensorProviderService(SensorProvider[] providers, MeterRegistry meterRegistry) {
         super(providers);
+
+        this.meterRegistry = meterRegistry;
+
+        for (SensorProvider provider : providers) {
+            int maxConcurrentReads = provider.getMaxConcurrentReads();
+            if (maxConcurrentReads < Integer.MAX_VALUE) {
+                readPermitsByProviderId.put(provider.getId(), new Semaphore(maxConcurrentReads, true));
+            }
+            double maxReadsPerSecond = provider.getMaxReadsPerSecond();
+            if (maxReadsPerSecond > 0) {
+                rateLimiterByProviderId.put(provider.getId(), RateLimiter.create(maxReadsPerSecond));
+            }
+        }
     }
 
-    public SensorValue obtainValue(String providerId, String providerConfig) {
+    /**
+     * Waits for the limits of the provider on the calling thread. The read itself only blocks it if the provider reads synchronously.
+     */
+    public CompletableFuture<SensorValue> obtainValueAsync(String providerId, String providerConfig) {
         SensorProvider provider = getProviderByIdNotNull(providerId);
-        return provider.obtainValue(providerConfig);
+        Semaphore readPermits = readPermitsByProviderId.get(providerId);
+        if (readPermits != null) {
+            try {
+                readPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for " + providerId, e);
+            }
+        }
+        CompletableFuture<SensorValue> result;
+        try {
+            RateLimiter rateLimiter = rateLimiterByProviderId.get(providerId);
+            if (rateLimiter != null) {
+                rateLimiter.acquire();
+            }
+            result = obtainValueTimed(provider, providerConfig);
+        } catch (RuntimeException e) {
+            if (readPermits != null) {
+                readPermits.release();
+            }
+            throw e;
+        }
+        if (readPermits != null) {
+            result = result.whenComplete((sensorValue, e) -> readPermits.release());
+        }
+        return result;
+    }
+
+    private CompletableFuture<SensorValue> obtainValueTimed(SensorProvider provider, String providerConfig) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<SensorValue> result;
+        try {
+            result = provider.obtainValueAsync(providerConfig);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.whenComplete((sensorValue, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                Counter.builder("sprinkler.sensor.read.failures") //
+                        .description("Failed sensor reads") //
+                        .tag("provider", provider.getId()) //
+                        .tag("exception", cause.getClass().getSimpleName()) //
+                        .register(meterRegistry) //
+                        .increment();
+            }
+            sample.stop(Timer.builder("sprinkler.sensor.read") //
+                    .description("Reading a sensor value via its provider, without waiting for limits") //
+                    .tag("provider", provider.getId()) //
+                    .tag("outcome", e == null ? "success" : "error") //
+                    .publishPercentileHistogram() //
+                    .register(meterRegistry));
+        });
     }
 
 }
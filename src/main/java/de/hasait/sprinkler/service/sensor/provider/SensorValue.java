@@ -25,10 +25,23 @@ public class SensorValue {
 
     private final LocalDateTime dateTime;
     private final int value;
+    private final boolean stale;
 
     public SensorValue(LocalDateTime dateTime, int value) {
+        this(dateTime, value, false);
+    }
+
+    private SensorValue(LocalDateTime dateTime, int value, boolean stale) {
         this.dateTime = dateTime;
         this.value = value;
+        this.stale = stale;
+    }
+
+    /**
+     * @return This value, marked as repeated from an earlier read because the current read failed.
+     */
+    public SensorValue asStale() {
+        return stale ? this : new SensorValue(dateTime, value, true);
     }
 
     public LocalDateTime getDateTime() {
@@ -39,9 +52,16 @@ public int getValue() {
         return value;
     }
 
+    /**
+     * @return <code>true</code> if the value was already returned by an earlier read, so it must not be stored again.
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
     @Override
     public String toString() {
-        return String.format("%1d (%2$tF %2$tR %2$ta)", value, dateTime);
+        return String.format("%1d (%2$tF %2$tR %2$ta)%3$s", value, dateTime, stale ? " stale" : "");
     }
 
 }
@@ -22,6 +22,7 @@
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.time.Clock;
 import java.time.LocalDateTime;
 
 /**
@@ -30,6 +31,12 @@
 @Service
 public class DummySensorProvider implements SensorProvider {
 
+    private final Clock clock;
+
+    public DummySensorProvider(Clock clock) {
+        this.clock = clock;
+    }
+
     @Nonnull
     @Override
     public String getId() {
@@ -61,7 +68,7 @@ public String validateConfig(@Nonnull String config) {
 
     @Override
     public SensorValue obtainValue(@Nonnull String config) {
-        return new SensorValue(LocalDateTime.now(), Integer.parseInt(config));
+        return new SensorValue(LocalDateTime.now(clock), Integer.parseInt(config));
     }
 
 }
@@ -0,0 +1,511 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.sensor.provider.hww;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.net.UrlEscapers;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import de.hasait.sprinkler.service.sensor.provider.SensorValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Queries the rain layers, coalescing all positions requested for the same layer, spatial reference and time window.
+ * <p>Positions requested within {@link #BATCH_WINDOW_MILLIS} are sent as one multipoint query and the features are assigned to
+ * the positions locally; identical positions are only sent once.</p>
+ * <p>Values are cached for the duration of a window. If a query fails, the last known value of the position is returned instead,
+ * if it is not older than {@link #STALE_VALUE_MINUTES}. It keeps its original date and is marked {@link SensorValue#isStale() stale}.</p>
+ * <p>Both caches expire by the given {@link Clock}, so simulated time is honored as well.</p>
+ */
+public class HwwRainClient {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HwwRainClient.class);
+
+    private static final String BASE_URL = "https://gis.hamburgwasser.de/sri/rest/services/SRI_Labels/MapServer/";
+    private static final long BATCH_WINDOW_MILLIS = 200;
+    private static final int CACHE_SIZE = 1000;
+    private static final long STALE_VALUE_MINUTES = 60;
+    /**
+     * Positions closer than this to an edge of a ring are inside, because the service returns features touching the position.
+     */
+    private static final double BOUNDARY_TOLERANCE = 0.01;
+    private static final int CONNECT_TIMEOUT_MILLIS = 10000;
+    private static final int READ_TIMEOUT_MILLIS = 30000;
+    /**
+     * Public service - be polite.
+     */
+    private static final int MAX_CONCURRENT_REQUESTS = 2;
+
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final Executor fetchExecutor = Executors.newFixedThreadPool(MAX_CONCURRENT_REQUESTS, new ThreadFactoryBuilder() //
+            .setNameFormat("HwwRainClient-%d") //
+            .setDaemon(true) //
+            .build());
+
+    private final Map<QueryKey, Batch> pendingBatchByKey = new HashMap<>();
+
+    /**
+     * Key is (queryKey, position).
+     */
+    private final Cache<List<Object>, SensorValue> valueCache;
+
+    /**
+     * Key is (sriLayer, spatialReference, position).
+     */
+    private final Cache<List<Object>, SensorValue> lastValueCache;
+
+    private final Clock clock;
+
+    private final ResponseOpener responseOpener;
+
+    public HwwRainClient(long windowMinutes, Clock clock) {
+        this(windowMinutes, clock, HwwRainClient::openResponse);
+    }
+
+    HwwRainClient(long windowMinutes, Clock clock, ResponseOpener responseOpener) {
+        this.clock = clock;
+        this.responseOpener = responseOpener;
+        Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return TimeUnit.MILLISECONDS.toNanos(clock.millis());
+            }
+        };
+        this.valueCache = CacheBuilder.newBuilder() //
+                .maximumSize(CACHE_SIZE) //
+                .expireAfterWrite(windowMinutes, TimeUnit.MINUTES) //
+                .ticker(ticker) //
+                .build();
+        this.lastValueCache = CacheBuilder.newBuilder() //
+                .maximumSize(CACHE_SIZE) //
+                .expireAfterWrite(STALE_VALUE_MINUTES, TimeUnit.MINUTES) //
+                .ticker(ticker) //
+                .build();
+    }
+
+    public CompletableFuture<SensorValue> query(int sriLayer, int spatialReference, LocalDateTime window, float positionX, float positionY) {
+        QueryKey key = new QueryKey(sriLayer, spatialReference, window);
+        Position position = new Position(positionX, positionY);
+        List<Object> valueKey = List.of(key, position);
+        SensorValue cachedValue = valueCache.getIfPresent(valueKey);
+        if (cachedValue != null) {
+            LOG.debug("Cached {}", valueKey);
+            return CompletableFuture.completedFuture(cachedValue);
+        }
+        List<Object> lastValueKey = List.of(sriLayer, spatialReference, position);
+        return queryCoalesced(key, position).handle((value, e) -> {
+            if (e == null) {
+                valueCache.put(valueKey, value);
+                lastValueCache.put(lastValueKey, value);
+                return value;
+            }
+            SensorValue lastValue = lastValueCache.getIfPresent(lastValueKey);
+            if (lastValue == null) {
+                throw e instanceof CompletionException ce ? ce : new CompletionException(e);
+            }
+            LOG.warn("Query failed - using last value from {}: {}", lastValue.getDateTime(), e.toString());
+            return lastValue.asStale();
+        });
+    }
+
+    private CompletableFuture<SensorValue> queryCoalesced(QueryKey key, Position position) {
+        synchronized (pendingBatchByKey) {
+            Batch batch = pendingBatchByKey.get(key);
+            if (batch == null) {
+                batch = new Batch();
+                pendingBatchByKey.put(key, batch);
+                CompletableFuture.delayedExecutor(BATCH_WINDOW_MILLIS, TimeUnit.MILLISECONDS, fetchExecutor).execute(() -> flushBatch(key));
+            }
+            return batch.resultByPosition.computeIfAbsent(position, ignored -> new CompletableFuture<>());
+        }
+    }
+
+    private void flushBatch(QueryKey key) {
+        Batch batch;
+        synchronized (pendingBatchByKey) {
+            batch = pendingBatchByKey.remove(key);
+        }
+        if (batch == null) {
+            return;
+        }
+        try {
+            Map<Position, SensorValue> valueByPosition = fetch(key, new ArrayList<>(batch.resultByPosition.keySet()));
+            batch.resultByPosition.forEach((position, result) -> {
+                SensorValue value = valueByPosition.get(position);
+                if (value == null) {
+                    result.completeExceptionally(new IllegalStateException("No feature assigned to " + position + " - skipped features could belong to it"));
+                } else {
+                    result.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            batch.resultByPosition.values().forEach(result -> result.completeExceptionally(e));
+        }
+    }
+
+    private Map<Position, SensorValue> fetch(QueryKey key, List<Position> positions) {
+        boolean multipoint = positions.size() > 1;
+
+        Map<String, String> queryParameters = new LinkedHashMap<>();
+        queryParameters.put("where", "ende > timestamp '" + formatter.format(key.window) + "'");
+        if (multipoint) {
+            String points = positions.stream().map(position -> "[" + position.x + "," + position.y + "]").collect(Collectors.joining(","));
+            queryParameters.put("geometry", "{\"points\":[" + points + "]}");
+            queryParameters.put("geometryType", "esriGeometryMultipoint");
+        } else {
+            Position position = positions.get(0);
+            queryParameters.put("geometry", position.x + "," + position.y);
+            queryParameters.put("geometryType", "esriGeometryPoint");
+        }
+        queryParameters.put("inSR", Integer.toString(key.spatialReference));
+        queryParameters.put("outSR", Integer.toString(key.spatialReference));
+        queryParameters.put("spatialRel", "esriSpatialRelIntersects");
+        queryParameters.put("orderByFields", "ende desc");
+        queryParameters.put("outFields", "ende,regenhoehe");
+        // geometry is only needed to assign the features to multiple positions
+        queryParameters.put("returnGeometry", Boolean.toString(multipoint));
+        queryParameters.put("f", "json");
+
+        StringBuilder urlStringBuilder = new StringBuilder(BASE_URL).append(key.sriLayer).append("/query");
+
+        boolean[] first = new boolean[]{true};
+        queryParameters.forEach((name, value) -> {
+            if (first[0]) {
+                first[0] = false;
+                urlStringBuilder.append('?');
+            } else {
+                urlStringBuilder.append('&');
+            }
+            urlStringBuilder.append(name).append('=').append(UrlEscapers.urlFormParameterEscaper().escape(value));
+        });
+
+        String urlString = urlStringBuilder.toString();
+
+        URL url;
+        try {
+            url = new URL(urlString);
+        } catch (MalformedURLException e) {
+            throw new RuntimeException("Invalid URL: " + urlString, e);
+        }
+
+        LOG.debug("{} position(s): {}", positions.size(), urlString);
+        Map<Position, RainAggregate> aggregateByPosition = new LinkedHashMap<>();
+        positions.forEach(position -> aggregateByPosition.put(position, new RainAggregate()));
+        int skippedFeatureCount;
+        try (JsonReader reader = new JsonReader(responseOpener.open(url))) {
+            skippedFeatureCount = parseResult(reader, multipoint, aggregateByPosition);
+        } catch (IOException | IllegalStateException e) {
+            throw new RuntimeException("Cannot read from URL: " + url, e);
+        }
+
+        // without a feature a position is dry, unless one of the skipped features was meant for it
+        Map<Position, SensorValue> valueByPosition = new HashMap<>();
+        aggregateByPosition.forEach((position, aggregate) -> {
+            if (skippedFeatureCount == 0 || !aggregate.isEmpty()) {
+                valueByPosition.put(position, aggregate.createValue(clock));
+            }
+        });
+        return valueByPosition;
+    }
+
+    private static Reader openResponse(URL url) throws IOException {
+        URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+        return new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Single pass over the features; only <code>ende</code>, <code>regenhoehe</code> and (if multipoint) the rings are read.
+     * <p>For multipoint queries every feature should match at least one of the positions, because the service only returns features
+     * intersecting them. A feature matching none, e.g. because its geometry could not be understood, is logged and skipped.</p>
+     *
+     * @return the number of skipped features.
+     */
+    static int parseResult(JsonReader reader, boolean multipoint, Map<Position, RainAggregate> aggregateByPosition) throws IOException {
+        List<double[][]> rings = new ArrayList<>();
+        int skippedFeatureCount = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("features".equals(name)) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    long ende = 0;
+                    int regenhoehe = 0;
+                    rings.clear();
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String featureName = reader.nextName();
+                        if ("attributes".equals(featureName)) {
+                            reader.beginObject();
+                            while (reader.hasNext()) {
+                                String attributeName = reader.nextName();
+                                if ("ende".equals(attributeName)) {
+                                    ende = reader.nextLong();
+                                } else if ("regenhoehe".equals(attributeName)) {
+                                    regenhoehe = reader.nextInt();
+                                } else {
+                                    reader.skipValue();
+                                }
+                            }
+                            reader.endObject();
+                        } else if ("geometry".equals(featureName) && multipoint) {
+                            parseRings(reader, rings);
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    boolean matched = false;
+                    for (Map.Entry<Position, RainAggregate> entry : aggregateByPosition.entrySet()) {
+                        if (!multipoint || contains(rings, entry.getKey())) {
+                            entry.getValue().add(ende, regenhoehe);
+                            matched = true;
+                        }
+                    }
+                    if (!matched) {
+                        LOG.warn("Skipping feature with ende {} matching none of the positions {}{}", ende, aggregateByPosition.keySet(), rings.isEmpty() ? " - no rings" : "");
+                        skippedFeatureCount++;
+                    }
+                }
+                reader.endArray();
+            } else if ("error".equals(name)) {
+                throw new IllegalStateException("Error response: " + JsonParser.parseReader(reader));
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return skippedFeatureCount;
+    }
+
+    private static void parseRings(JsonReader reader, List<double[][]> rings) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("rings".equals(reader.nextName())) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    List<double[]> ring = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        reader.beginArray();
+                        double x = reader.nextDouble();
+                        double y = reader.nextDouble();
+                        while (reader.hasNext()) {
+                            reader.skipValue();
+                        }
+                        reader.endArray();
+                        ring.add(new double[]{x, y});
+                    }
+                    reader.endArray();
+                    rings.add(ring.toArray(new double[0][]));
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Even-odd rule over all rings, so holes are handled as well; positions on an edge are inside.
+     */
+    private static boolean contains(List<double[][]> rings, Position position) {
+        boolean inside = false;
+        for (double[][] ring : rings) {
+            for (int i = 0, j = ring.length - 1; i < ring.length; j = i++) {
+                double xi = ring[i][0];
+                double yi = ring[i][1];
+                double xj = ring[j][0];
+                double yj = ring[j][1];
+                if (isOnSegment(xi, yi, xj, yj, position)) {
+                    return true;
+                }
+                if ((yi > position.y) != (yj > position.y) && position.x < (xj - xi) * (position.y - yi) / (yj - yi) + xi) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    private static boolean isOnSegment(double x1, double y1, double x2, double y2, Position position) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, ((position.x - x1) * dx + (position.y - y1) * dy) / lengthSquared));
+        return Math.hypot(x1 + t * dx - position.x, y1 + t * dy - position.y) <= BOUNDARY_TOLERANCE;
+    }
+
+    private static class QueryKey {
+
+        private final int sriLayer;
+        private final int spatialReference;
+        private final LocalDateTime window;
+
+        private QueryKey(int sriLayer, int spatialReference, LocalDateTime window) {
+            this.sriLayer = sriLayer;
+            this.spatialReference = spatialReference;
+            this.window = window;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            QueryKey other = (QueryKey) o;
+            return sriLayer == other.sriLayer && spatialReference == other.spatialReference && window.equals(other.window);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sriLayer, spatialReference, window);
+        }
+
+        @Override
+        public String toString() {
+            return sriLayer + "/" + spatialReference + "/" + window;
+        }
+
+    }
+
+    static class Position {
+
+        private final float x;
+        private final float y;
+
+        Position(float x, float y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Position other = (Position) o;
+            return Float.compare(x, other.x) == 0 && Float.compare(y, other.y) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(x, y);
+        }
+
+        @Override
+        public String toString() {
+            return x + "," + y;
+        }
+
+    }
+
+    /**
+     * Opens the response of a query; replaced in tests.
+     */
+    interface ResponseOpener {
+
+        Reader open(URL url) throws IOException;
+
+    }
+
+    private static class Batch {
+
+        private final Map<Position, CompletableFuture<SensorValue>> resultByPosition = new LinkedHashMap<>();
+
+    }
+
+    /**
+     * Average regenhoehe of the features with the latest ende.
+     */
+    static class RainAggregate {
+
+        private long maxEnde = Long.MIN_VALUE;
+        private long regenhoeheSum;
+        private int count;
+
+        private void add(long ende, int regenhoehe) {
+            if (ende > maxEnde) {
+                maxEnde = ende;
+                regenhoeheSum = 0;
+                count = 0;
+            }
+            if (ende == maxEnde) {
+                regenhoeheSum += regenhoehe;
+                count++;
+            }
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        /**
+         * No feature at all means no rain at the position.
+         */
+        SensorValue createValue(Clock clock) {
+            if (count == 0) {
+                return createValue(clock.millis(), 0);
+            }
+            return createValue(maxEnde, (int) (regenhoeheSum / count));
+        }
+
+        private static SensorValue createValue(long ende, int regenhoehe) {
+            return new SensorValue(LocalDateTime.ofEpochSecond(ende / 1000, 0, ZoneOffset.UTC), regenhoehe);
+        }
+
+    }
+
+}
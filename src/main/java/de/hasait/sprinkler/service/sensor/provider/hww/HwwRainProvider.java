@@ -16,12 +16,9 @@
 
 package de.hasait.sprinkler.service.sensor.provider.hww;
 
-import com.google.common.net.UrlEscapers;
-import com.google.gson.Gson;
 import de.hasait.sprinkler.service.sensor.provider.SensorProvider;
 import de.hasait.sprinkler.service.sensor.provider.SensorValue;
 import de.hasait.common.util.Util;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,19 +26,14 @@
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.io.IOException;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * <p>Rain Service of Hamburger Wasserwerke GmbH:
@@ -72,11 +64,17 @@ public static String invalidReason(HwwConfiguration configuration) {
         return reasons.isEmpty() ? null : StringUtils.join(reasons, ", ");
     }
 
-    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final long QUERY_TIMEOUT_SECONDS = 60;
+
+    private final Clock clock;
+
+    private final HwwRainClient client;
 
     private final String disabledReason;
 
-    public HwwRainProvider() {
+    public HwwRainProvider(Clock clock) {
+        this.clock = clock;
+        this.client = new HwwRainClient(ROUND_TO_MINUTES, clock);
         this.disabledReason = null;
     }
 
@@ -126,118 +124,29 @@ private HwwConfiguration parseConfig(@Nonnull String config) {
 
     @Override
     public SensorValue obtainValue(@Nonnull String config) {
+        try {
+            return obtainValueAsync(config).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Query failed for " + config, e.getCause());
+        }
+    }
+
+    /**
+     * Does not block; the query is coalesced with the queries of other sensors and runs on the threads of {@link HwwRainClient}.
+     */
+    @Override
+    public CompletableFuture<SensorValue> obtainValueAsync(@Nonnull String config) {
         HwwConfiguration configuration = parseConfig(config);
-        String baseUrlString = "https://gis.hamburgwasser.de/sri/rest/services/SRI_Labels/MapServer/" + configuration.getSriLayer() + "/query";
 
-        LocalDateTime dateTimeNow = LocalDateTime.now();
+        LocalDateTime dateTimeNow = LocalDateTime.now(clock);
         LocalDateTime dateTimeRounded = dateTimeNow //
                 .truncatedTo(ChronoUnit.HOURS)
                 .plusMinutes(ROUND_TO_MINUTES * (dateTimeNow.getMinute() / ROUND_TO_MINUTES)) //
                 .minusMinutes(2 * ROUND_TO_MINUTES) //
                 ;
-        Map<String, String> queryParameters = new LinkedHashMap<>();
-        queryParameters.put("where", "ende > timestamp '" + formatter.format(dateTimeRounded) + "'");
-        queryParameters.put("geometry", configuration.getPositionX() + "," + configuration.getPositionY());
-        queryParameters.put("geometryType", "esriGeometryPoint");
-        queryParameters.put("inSR", Integer.toString(configuration.getSpatialReference()));
-        queryParameters.put("spatialRel", "esriSpatialRelIntersects");
-        queryParameters.put("orderByFields", "ende desc");
-        queryParameters.put("outFields", "*");
-        queryParameters.put("returnGeometry", "true");
-        queryParameters.put("f", "json");
-
-        StringBuilder urlStringBuilder = new StringBuilder(baseUrlString);
-
-        boolean[] first = new boolean[]{true};
-        queryParameters.forEach((name, value) -> {
-            if (first[0]) {
-                first[0] = false;
-                urlStringBuilder.append('?');
-            } else {
-                urlStringBuilder.append('&');
-            }
-            urlStringBuilder.append(name).append('=').append(UrlEscapers.urlFormParameterEscaper().escape(value));
-        });
-
-        String urlString = urlStringBuilder.toString();
-
-        URL url;
-        try {
-            url = new URL(urlString);
-        } catch (MalformedURLException e) {
-            throw new RuntimeException("Invalid URL: " + urlString, e);
-        }
-
-        LOG.debug(urlString);
-        String resultJsonString;
-        try {
-            resultJsonString = IOUtils.toString(url, StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            throw new RuntimeException("Cannot read from URL: " + url, e);
-        }
-
-        RainResult result;
-        try {
-            Gson gson = new Gson();
-            result = gson.fromJson(resultJsonString, RainResult.class);
-        } catch (RuntimeException e) {
-            throw new RuntimeException("Cannot parse JSON:\n" + resultJsonString + "\n", e);
-        }
-
-        if (!result.features.isEmpty()) {
-            long maxEnde = result.features.stream().map(RainFeature::getAttributes).map(RainFeatureAttributes::getEnde)
-                    .reduce(Long::max).get();
-            List<Integer> regenhoehen = result.features.stream().map(RainFeature::getAttributes).filter(a -> a.getEnde() == maxEnde)
-                    .map(RainFeatureAttributes::getRegenhoehe).collect(Collectors.toList());
-            int regenhoeheAverage = regenhoehen.stream().reduce(Integer::sum).get() / regenhoehen.size();
-            return createValue(maxEnde, regenhoeheAverage);
-        } else {
-            return createValue(System.currentTimeMillis(), 0);
-        }
-    }
-
-    private SensorValue createValue(long ende, int regenhoehe) {
-        return new SensorValue(LocalDateTime.ofEpochSecond(ende / 1000, 0, ZoneOffset.UTC), regenhoehe);
-    }
-
-    private static class RainFeature {
-
-        public RainFeatureAttributes attributes;
-
-        public RainFeatureAttributes getAttributes() {
-            return attributes;
-        }
-
-    }
-
-    private static class RainFeatureAttributes {
-
-        public String ID;
-        public long ende;
-        public int regenhoehe;
-
-        public long getEnde() {
-            return ende;
-        }
-
-        public String getID() {
-            return ID;
-        }
-
-        public int getRegenhoehe() {
-            return regenhoehe;
-        }
-
-    }
-
-    private static class RainResult {
-
-        public List<RainFeature> features = new ArrayList<>();
-
-        public List<RainFeature> getFeatures() {
-            return features;
-        }
 
+        return client.query(configuration.getSriLayer(), configuration.getSpatialReference(), dateTimeRounded, configuration.getPositionX(), configuration.getPositionY()) //
+                .orTimeout(QUERY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
     }
 
 }
@@ -18,8 +18,8 @@
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
@@ -28,7 +28,7 @@ public class DummyAutoConfiguration {
     private static final Logger LOG = LoggerFactory.getLogger(DummyAutoConfiguration.class);
 
     @Bean
-    @ConditionalOnMissingBean
+    @Conditional(MqttUriMissingCondition.class)
     SensorValuePublisher sensorValuePublisher() {
         LOG.info("Using {} as {}", DummySensorValuePublisher.class, SensorValuePublisher.class);
         return new DummySensorValuePublisher();
@@ -16,6 +16,7 @@
 
 package de.hasait.sprinkler.service.sensor.publish;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.eclipse.paho.client.mqttv3.MqttException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,9 +33,15 @@ public class MqttAutoConfiguration {
 
     @Bean
     @ConditionalOnProperty(value = "sprinkler.mqtt.uri")
-    SensorValuePublisher sensorValuePublisher(MqttConfiguration configuration) throws MqttException {
+    MqttOutbox mqttOutbox(MqttConfiguration configuration, MeterRegistry meterRegistry) throws MqttException {
+        return new MqttOutbox(configuration, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "sprinkler.mqtt.uri")
+    SensorValuePublisher sensorValuePublisher(MqttConfiguration configuration, MqttOutbox mqttOutbox) {
         LOG.info("Using {} as {}", MqttSensorValuePublisher.class, SensorValuePublisher.class);
-        return new MqttSensorValuePublisher(configuration);
+        return new MqttSensorValuePublisher(configuration, mqttOutbox);
     }
 
 }
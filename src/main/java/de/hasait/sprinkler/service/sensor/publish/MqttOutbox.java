@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.sensor.publish;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
+import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.IMqttToken;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttCallbackExtended;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes via {@link IMqttAsyncClient}, callers never block on the broker.
+ * <p>Messages wait in a bounded outbox, which is drained in order whenever the connection is (re-)established.
+ * A waiting message of a state topic is replaced by a newer one, so while disconnected only the latest state is kept.
+ * Messages of event topics are never replaced; if the outbox is full, the oldest message is dropped.</p>
+ */
+public class MqttOutbox implements MqttCallbackExtended {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MqttOutbox.class);
+
+    private static final int CAPACITY = 1000;
+    private static final int MAX_INFLIGHT = 20;
+
+    private final IMqttAsyncClient client;
+
+    /**
+     * Ordered by sequence, so that requeued entries keep their position.
+     */
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingLong(entry -> entry.sequence));
+    /**
+     * Waiting entries of state topics.
+     */
+    private final Map<String, Entry> stateEntryByTopic = new HashMap<>();
+    private long nextSequence;
+    private int inflight;
+
+    private final Timer publishTimer;
+    private final Counter droppedCounter;
+
+    public MqttOutbox(MqttConfiguration configuration, MeterRegistry meterRegistry) throws MqttException {
+        this(new MqttAsyncClient(configuration.getUri(), configuration.getClientId(), new MemoryPersistence()), meterRegistry);
+
+        MqttConnectOptions options = new MqttConnectOptions();
+        options.setAutomaticReconnect(true);
+        options.setCleanSession(true);
+        options.setConnectionTimeout(10);
+        options.setMaxInflight(MAX_INFLIGHT);
+        options.setUserName(configuration.getUsername());
+        options.setPassword(configuration.getPassword());
+        client.connect(options, null, new IMqttActionListener() {
+            @Override
+            public void onSuccess(IMqttToken asyncActionToken) {
+                // connectComplete
+            }
+
+            @Override
+            public void onFailure(IMqttToken asyncActionToken, Throwable exception) {
+                LOG.warn("Initial connect to {} failed, retrying: {}", configuration.getUri(), exception.toString());
+                try {
+                    client.reconnect();
+                } catch (MqttException e) {
+                    LOG.warn("Reconnect failed", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Does not connect; {@link #connectComplete(boolean, String)} starts draining.
+     */
+    MqttOutbox(IMqttAsyncClient client, MeterRegistry meterRegistry) {
+        this.publishTimer = Timer.builder("sprinkler.mqtt.publish") //
+                .description("Time from handing a message to the client until the broker acknowledged it") //
+                .publishPercentileHistogram() //
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("sprinkler.mqtt.outbox.dropped") //
+                .description("Messages dropped because the outbox was full") //
+                .register(meterRegistry);
+        Gauge.builder("sprinkler.mqtt.outbox.size", this, MqttOutbox::size) //
+                .description("Messages waiting to be published") //
+                .register(meterRegistry);
+
+        this.client = client;
+        client.setCallback(this);
+    }
+
+    /**
+     * @param state Whether the topic holds a state, so that a newer message may replace a waiting one. Events must not be replaced.
+     */
+    public void publish(String topic, String content, boolean retained, boolean state) {
+        MqttMessage message = new MqttMessage(content.getBytes(StandardCharsets.UTF_8));
+        message.setQos(0);
+        message.setRetained(retained);
+        synchronized (queue) {
+            Entry waiting = state ? stateEntryByTopic.get(topic) : null;
+            if (waiting != null) {
+                waiting.message = message;
+            } else {
+                if (queue.size() >= CAPACITY) {
+                    Entry oldest = queue.poll();
+                    stateEntryByTopic.remove(oldest.topic, oldest);
+                    LOG.warn("Outbox full - dropping message for {}", oldest.topic);
+                    droppedCounter.increment();
+                }
+                Entry entry = new Entry(nextSequence++, topic, message, state);
+                queue.add(entry);
+                if (state) {
+                    stateEntryByTopic.put(topic, entry);
+                }
+            }
+        }
+        drain();
+    }
+
+    public int size() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    private void drain() {
+        while (client.isConnected()) {
+            Entry entry;
+            synchronized (queue) {
+                if (queue.isEmpty() || inflight >= MAX_INFLIGHT) {
+                    return;
+                }
+                entry = queue.poll();
+                stateEntryByTopic.remove(entry.topic, entry);
+                inflight++;
+            }
+            send(entry);
+        }
+    }
+
+    private void send(Entry entry) {
+        String topic = entry.topic;
+        MqttMessage message = entry.message;
+        long startNanos = System.nanoTime();
+        try {
+            client.publish(topic, message, null, new IMqttActionListener() {
+                @Override
+                public void onSuccess(IMqttToken asyncActionToken) {
+                    publishTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                    LOG.debug("Published to {}", topic);
+                    completed();
+                }
+
+                @Override
+                public void onFailure(IMqttToken asyncActionToken, Throwable exception) {
+                    LOG.warn("Publishing to {} failed: {}", topic, exception.toString());
+                    requeue(entry);
+                    completed();
+                }
+            });
+        } catch (MqttException | RuntimeException e) {
+            LOG.warn("Publishing to {} failed: {}", topic, e.toString());
+            requeue(entry);
+            synchronized (queue) {
+                inflight--;
+            }
+        }
+    }
+
+    private void completed() {
+        synchronized (queue) {
+            inflight--;
+        }
+        drain();
+    }
+
+    /**
+     * A state only unless a newer message for the topic arrived in the meantime.
+     */
+    private void requeue(Entry entry) {
+        synchronized (queue) {
+            if (queue.size() >= CAPACITY || entry.state && stateEntryByTopic.containsKey(entry.topic)) {
+                return;
+            }
+            queue.add(entry);
+            if (entry.state) {
+                stateEntryByTopic.put(entry.topic, entry);
+            }
+        }
+    }
+
+    @Override
+    public void connectComplete(boolean reconnect, String serverURI) {
+        LOG.info("Connected to MQTT: {}{}", serverURI, reconnect ? " (reconnect)" : "");
+        drain();
+    }
+
+    @Override
+    public void connectionLost(Throwable cause) {
+        LOG.warn("Connection to MQTT lost: {}", cause == null ? null : cause.toString());
+    }
+
+    @Override
+    public void messageArrived(String topic, MqttMessage message) {
+        // not subscribed
+    }
+
+    @Override
+    public void deliveryComplete(IMqttDeliveryToken token) {
+        // handled by listener
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            if (client.isConnected()) {
+                client.disconnect().waitForCompletion(5000);
+            }
+            client.close();
+        } catch (MqttException e) {
+            LOG.warn("Disconnect failed", e);
+        }
+    }
+
+    private static class Entry {
+
+        private final long sequence;
+        private final String topic;
+        private final boolean state;
+        private MqttMessage message;
+
+        private Entry(long sequence, String topic, MqttMessage message, boolean state) {
+            this.sequence = sequence;
+            this.topic = topic;
+            this.message = message;
+            this.state = state;
+        }
+
+    }
+
+}
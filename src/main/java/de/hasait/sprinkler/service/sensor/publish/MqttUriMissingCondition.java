@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.hasait.sprinkler.service.sensor.publish;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.NoneNestedConditions;
+
+/**
+ * Matches if MQTT is not configured.
+ * <p>Used by the dummy publishers instead of <code>@ConditionalOnMissingBean</code>, which depends on the order in which the
+ * configuration classes are found and let both publishers be registered.</p>
+ */
+public class MqttUriMissingCondition extends NoneNestedConditions {
+
+    public MqttUriMissingCondition() {
+        super(ConfigurationPhase.REGISTER_BEAN);
+    }
+
+    @ConditionalOnProperty(value = "sprinkler.mqtt.uri")
+    static class MqttUriPresent {
+    }
+
+}
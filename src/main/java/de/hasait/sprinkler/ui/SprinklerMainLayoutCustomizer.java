@@ -24,6 +24,7 @@
 import de.hasait.sprinkler.domain.schedule.SchedulePO;
 import de.hasait.sprinkler.domain.sensor.SensorPO;
 import de.hasait.sprinkler.domain.sensor.SensorValuePO;
+import de.hasait.sprinkler.domain.sensor.SensorValueRollupPO;
 import de.hasait.sprinkler.service.relay.provider.RelayProvider;
 import de.hasait.sprinkler.service.sensor.provider.SensorProvider;
 import de.hasait.sprinkler.ui.relay.RelayProvidersView;
@@ -31,6 +32,7 @@
 import de.hasait.sprinkler.ui.schedule.ScheduleLogsView;
 import de.hasait.sprinkler.ui.schedule.SchedulesView;
 import de.hasait.sprinkler.ui.sensor.SensorProvidersView;
+import de.hasait.sprinkler.ui.sensor.SensorValueRollupsView;
 import de.hasait.sprinkler.ui.sensor.SensorValuesView;
 import de.hasait.sprinkler.ui.sensor.SensorsView;
 import org.slf4j.Logger;
@@ -53,6 +55,7 @@ public void populateDrawer(VerticalLayout verticalLayout) {
         VaadinUtil.addDataViewRouterLink(verticalLayout, RelayProvider.class, "grid", RelayProvidersView.class);
         VaadinUtil.addDataViewRouterLink(verticalLayout, SensorPO.class, "grid", SensorsView.class);
         VaadinUtil.addDataViewRouterLink(verticalLayout, SensorValuePO.class, "grid", SensorValuesView.class);
+        VaadinUtil.addDataViewRouterLink(verticalLayout, SensorValueRollupPO.class, "grid", SensorValueRollupsView.class);
         VaadinUtil.addDataViewRouterLink(verticalLayout, SensorProvider.class, "grid", SensorProvidersView.class);
     }
 
@@ -37,6 +37,7 @@ public class UiConstants {
     public static final String CAPTION_NAME = "Name";
     public static final String CAPTION_PROVIDER_ID = "Provider";
     public static final String CAPTION_PROVIDER_CONFIG = "Provider Config";
+    public static final String CAPTION_PROVIDER_INFO = "Provider Info";
     public static final String CAPTION_RELAY = "Relay";
     public static final String CAPTION_SENSOR = "Sensor";
     public static final String CAPTION_SENSOR_INFLUENCE = "Sensor Influence";
@@ -75,6 +75,16 @@ public RelaysView(RelayRepository repository, RelayForm beanForm, TestForm testF
             }
         });
         active.setHeader(UiConstants.CAPTION_ACTIVE);
+
+        Grid.Column<RelayPO> providerInfo = beanGrid.addColumn(po -> {
+            try {
+                return relayProviderService.getConfigInfo(po.getProviderId(), po.getProviderConfig());
+            } catch (RuntimeException e) {
+                LOG.warn("{} failed", RelayProvider.class.getSimpleName(), e);
+                return null;
+            }
+        });
+        providerInfo.setHeader(UiConstants.CAPTION_PROVIDER_INFO);
     }
 
     @Override
@@ -29,6 +29,8 @@
 import de.hasait.sprinkler.ui.UiConstants;
 import jakarta.annotation.security.PermitAll;
 
+import java.time.Duration;
+
 /**
  *
  */
@@ -38,6 +40,8 @@
 @UIScope
 public class ScheduleLogsView extends AbstractGridView<ScheduleLogPO> {
 
+    private static final Duration COUNT_CACHE_DURATION = Duration.ofSeconds(30);
+
     private final ScheduleLogRepository repository;
 
     private final JpaRepositoryDataProvider<ScheduleLogPO, ScheduleLogRepository> dataProvider;
@@ -47,6 +51,9 @@ public ScheduleLogsView(ScheduleLogRepository repository) {
 
         this.repository = repository;
         this.dataProvider = new JpaRepositoryDataProvider<>(repository);
+        dataProvider.setKeyset(true);
+        dataProvider.setPrefetchPages(1);
+        dataProvider.setCountCacheDuration(COUNT_CACHE_DURATION);
         beanGrid.setDataProvider(dataProvider);
 
         Grid.Column<ScheduleLogPO> startColumn = beanGrid.addColumn(ScheduleLogPO::getStart);
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.hasait.sprinkler.ui.sensor;
+
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.spring.annotation.SpringComponent;
+import com.vaadin.flow.spring.annotation.UIScope;
+import de.hasait.common.ui.AbstractGridView;
+import de.hasait.common.ui.JpaRepositoryDataProvider;
+import de.hasait.common.ui.MainLayout;
+import de.hasait.sprinkler.domain.sensor.SensorValueRollupPO;
+import de.hasait.sprinkler.domain.sensor.SensorValueRollupRepository;
+import jakarta.annotation.security.PermitAll;
+
+import java.time.Duration;
+
+/**
+ * Hourly and daily aggregates of sensor values, available long after the raw values were deleted by the retention.
+ */
+@PermitAll
+@Route(value = "sensorvaluerollups", layout = MainLayout.class)
+@SpringComponent
+@UIScope
+public class SensorValueRollupsView extends AbstractGridView<SensorValueRollupPO> {
+
+    private static final Duration COUNT_CACHE_DURATION = Duration.ofSeconds(30);
+
+    private final SensorValueRollupRepository repository;
+
+    private final JpaRepositoryDataProvider<SensorValueRollupPO, SensorValueRollupRepository> dataProvider;
+
+    public SensorValueRollupsView(SensorValueRollupRepository repository) {
+        super(SensorValueRollupPO.class, 1);
+
+        this.repository = repository;
+        this.dataProvider = new JpaRepositoryDataProvider<>(repository);
+        dataProvider.setKeyset(true);
+        dataProvider.setPrefetchPages(1);
+        dataProvider.setCountCacheDuration(COUNT_CACHE_DURATION);
+        beanGrid.setDataProvider(dataProvider);
+
+        Grid.Column<SensorValueRollupPO> sensorNameColumn = beanGrid.addColumn(po -> po.getSensor().getName());
+        sensorNameColumn.setHeader("Sensor Name");
+
+        Grid.Column<SensorValueRollupPO> resolutionColumn = beanGrid.addColumn(SensorValueRollupPO::getResolution);
+        resolutionColumn.setHeader("Resolution");
+
+        Grid.Column<SensorValueRollupPO> periodStartColumn = beanGrid.addColumn(SensorValueRollupPO::getPeriodStart);
+        periodStartColumn.setHeader("Period Start");
+        periodStartColumn.setSortProperty("periodStart");
+
+        Grid.Column<SensorValueRollupPO> countColumn = beanGrid.addColumn(SensorValueRollupPO::getCount);
+        countColumn.setHeader("Count");
+
+        Grid.Column<SensorValueRollupPO> minValueColumn = beanGrid.addColumn(SensorValueRollupPO::getMinValue);
+        minValueColumn.setHeader("Min");
+
+        Grid.Column<SensorValueRollupPO> avgValueColumn = beanGrid.addColumn(po -> Math.round(po.determineAvgValue()));
+        avgValueColumn.setHeader("Avg");
+
+        Grid.Column<SensorValueRollupPO> maxValueColumn = beanGrid.addColumn(SensorValueRollupPO::getMaxValue);
+        maxValueColumn.setHeader("Max");
+    }
+
+    @Override
+    protected void updateGrid() {
+        super.updateGrid();
+
+        dataProvider.refreshAll();
+    }
+
+}
@@ -28,6 +28,8 @@
 import de.hasait.sprinkler.domain.sensor.SensorValueRepository;
 import jakarta.annotation.security.PermitAll;
 
+import java.time.Duration;
+
 /**
  *
  */
@@ -37,6 +39,8 @@
 @UIScope
 public class SensorValuesView extends AbstractGridView<SensorValuePO> {
 
+    private static final Duration COUNT_CACHE_DURATION = Duration.ofSeconds(30);
+
     private final SensorValueRepository repository;
 
     private final JpaRepositoryDataProvider<SensorValuePO, SensorValueRepository> dataProvider;
@@ -46,6 +50,9 @@ public SensorValuesView(SensorValueRepository repository) {
 
         this.repository = repository;
         this.dataProvider = new JpaRepositoryDataProvider<>(repository);
+        dataProvider.setKeyset(true);
+        dataProvider.setPrefetchPages(1);
+        dataProvider.setCountCacheDuration(COUNT_CACHE_DURATION);
         beanGrid.setDataProvider(dataProvider);
 
         Grid.Column<SensorValuePO> scheduleIdColumn = beanGrid.addColumn(po -> po.getSensor().getName());
@@ -0,0 +1,27 @@
+--
+-- Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- Indexes of existing tables, for databases not updated by spring.jpa.hibernate.ddl-auto=update.
+-- Must match the @Index annotations of the entities; can be run repeatedly.
+
+-- SensorValuePO: latest values per sensor
+create index if not exists IDX_SENSOR_VALUE_SENSOR_ID on SENSOR_VALUE (SENSOR_ID, ID);
+-- SensorValuePO: retention per sensor
+create index if not exists IDX_SENSOR_VALUE_SENSOR_DATE_TIME on SENSOR_VALUE (SENSOR_ID, DATE_TIME);
+-- ScheduleLogPO: retention
+create index if not exists IDX_SCHEDULE_LOG_START on SCHEDULE_LOG (START);
+-- RelayPO: lookup by provider address
+create index if not exists IDX_RELAY_PROVIDER on RELAY (PROVIDER_ID, PROVIDER_CONFIG);
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.hasait.common.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CronTimelineTest {
+
+    private static final Instant START = Instant.parse("2026-05-01T00:00:10Z");
+    private static final String EVERY_MINUTE = "0 * * * * *";
+
+    private final List<String> fired = new ArrayList<>();
+
+    @Test
+    void firesAllEntriesWithSingleWakeUp() {
+        SimulatedTaskScheduler taskScheduler = new SimulatedTaskScheduler(START, ZoneOffset.UTC);
+        CronTimeline timeline = new CronTimeline(taskScheduler);
+
+        register(timeline, "a", EVERY_MINUTE);
+        register(timeline, "b", "30 * * * * *");
+        assertThat(timeline.size()).isEqualTo(2);
+        assertThat(taskScheduler.size()).isEqualTo(1);
+
+        taskScheduler.advanceBy(Duration.ofMinutes(2));
+
+        assertThat(fired).containsExactly("b@00:00:30", "a@00:01", "b@00:01:30", "a@00:02");
+        assertThat(taskScheduler.size()).isEqualTo(1);
+    }
+
+    @Test
+    void reRegisteringReplacesEntry() {
+        SimulatedTaskScheduler taskScheduler = new SimulatedTaskScheduler(START, ZoneOffset.UTC);
+        CronTimeline timeline = new CronTimeline(taskScheduler);
+
+        register(timeline, "a", EVERY_MINUTE);
+        register(timeline, "a", "0 0 * * * *");
+        assertThat(timeline.size()).isEqualTo(1);
+        assertThat(taskScheduler.size()).isEqualTo(1);
+
+        taskScheduler.advanceBy(Duration.ofHours(2));
+
+        assertThat(fired).containsExactly("a@01:00", "a@02:00");
+    }
+
+    @Test
+    void unregisteringCancelsWakeUp() {
+        SimulatedTaskScheduler taskScheduler = new SimulatedTaskScheduler(START, ZoneOffset.UTC);
+        CronTimeline timeline = new CronTimeline(taskScheduler);
+
+        register(timeline, "a", EVERY_MINUTE);
+        register(timeline, "b", "0 0 * * * *");
+        timeline.unregister("a");
+        assertThat(timeline.size()).isEqualTo(1);
+        assertThat(taskScheduler.size()).isEqualTo(1);
+
+        timeline.unregister("b");
+        timeline.unregister("unknown");
+        assertThat(timeline.size()).isZero();
+        assertThat(taskScheduler.size()).isZero();
+
+        taskScheduler.advanceBy(Duration.ofHours(2));
+
+        assertThat(fired).isEmpty();
+    }
+
+    @Test
+    void dispatchesEntriesDueAtSameInstantInKeyOrder() {
+        SimulatedTaskScheduler taskScheduler = new SimulatedTaskScheduler(START, ZoneOffset.UTC);
+        CronTimeline timeline = new CronTimeline(taskScheduler);
+
+        register(timeline, "c", EVERY_MINUTE);
+        register(timeline, "a", EVERY_MINUTE);
+        register(timeline, "b", EVERY_MINUTE);
+
+        taskScheduler.advanceBy(Duration.ofMinutes(2));
+
+        assertThat(fired).containsExactly("a@00:01", "b@00:01", "c@00:01", "a@00:02", "b@00:02", "c@00:02");
+    }
+
+    @Test
+    void firesOnceAfterClockJumpedForward() {
+        ManualTaskScheduler taskScheduler = new ManualTaskScheduler();
+        CronTimeline timeline = new CronTimeline(taskScheduler.mock);
+
+        register(timeline, "a", EVERY_MINUTE);
+        assertThat(taskScheduler.instants).containsExactly(Instant.parse("2026-05-01T00:01:00Z"));
+
+        // e.g. resumed after suspend: the wake-up runs long after the missed instants
+        taskScheduler.clock.now = Instant.parse("2026-05-01T00:05:10Z");
+        taskScheduler.runNext();
+        taskScheduler.runNext();
+
+        assertThat(fired).containsExactly("a@00:01");
+        assertThat(taskScheduler.instants).containsExactly(Instant.parse("2026-05-01T00:06:00Z"));
+    }
+
+    @Test
+    void waitsAgainIfWokenUpEarlyAfterClockMovedBack() {
+        ManualTaskScheduler taskScheduler = new ManualTaskScheduler();
+        CronTimeline timeline = new CronTimeline(taskScheduler.mock);
+
+        register(timeline, "a", EVERY_MINUTE);
+
+        taskScheduler.clock.now = Instant.parse("2026-05-01T00:00:05Z");
+        taskScheduler.runNext();
+
+        assertThat(fired).isEmpty();
+        assertThat(taskScheduler.instants).containsExactly(Instant.parse("2026-05-01T00:01:00Z"));
+    }
+
+    private void register(CronTimeline timeline, String key, String cronExpression) {
+        timeline.register(key, cronExpression, planned -> {
+            String time = planned.atOffset(ZoneOffset.UTC).toLocalTime().toString();
+            fired.add(key + "@" + time);
+        });
+    }
+
+    /**
+     * Runs scheduled tasks only on request, regardless of the clock.
+     */
+    private static class ManualTaskScheduler {
+
+        private final MutableClock clock = new MutableClock();
+        private final TaskScheduler mock = mock(TaskScheduler.class);
+        private final List<Runnable> tasks = new ArrayList<>();
+        private final List<Instant> instants = new ArrayList<>();
+
+        private ManualTaskScheduler() {
+            when(mock.getClock()).thenReturn(clock);
+            when(mock.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+                Runnable task = invocation.getArgument(0);
+                Instant instant = invocation.getArgument(1);
+                tasks.add(task);
+                instants.add(instant);
+                ScheduledFuture<?> future = mock(ScheduledFuture.class);
+                when(future.cancel(false)).thenAnswer(ignored -> {
+                    int index = tasks.indexOf(task);
+                    if (index >= 0) {
+                        tasks.remove(index);
+                        instants.remove(index);
+                    }
+                    return true;
+                });
+                return future;
+            });
+        }
+
+        /**
+         * Run the earliest task, the first submitted one if several are due at the same instant.
+         */
+        private void runNext() {
+            int index = instants.indexOf(instants.stream().min(Instant::compareTo).orElseThrow());
+            instants.remove(index);
+            tasks.remove(index).run();
+        }
+
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = START;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.hasait.common.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.support.CronTrigger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SimulatedTaskSchedulerTest {
+
+    private static final Instant START = Instant.parse("2026-05-01T00:00:00Z");
+
+    private final SimulatedTaskScheduler taskScheduler = new SimulatedTaskScheduler(START, ZoneOffset.UTC);
+
+    private final List<String> runs = new ArrayList<>();
+
+    @Test
+    void runsOneShotWithClockAtItsInstant() throws ExecutionException, InterruptedException {
+        ScheduledFuture<?> future = taskScheduler.schedule(record("a"), START.plusSeconds(90));
+
+        taskScheduler.advanceBy(Duration.ofMinutes(1));
+        assertThat(runs).isEmpty();
+        assertThat(future.getDelay(TimeUnit.SECONDS)).isEqualTo(30);
+
+        taskScheduler.advanceBy(Duration.ofMinutes(1));
+        assertThat(runs).containsExactly("a@00:01:30");
+        assertThat(future.isDone()).isTrue();
+        assertThat(future.get()).isNull();
+        assertThat(taskScheduler.getClock().instant()).isEqualTo(START.plusSeconds(120));
+        assertThat(taskScheduler.size()).isZero();
+    }
+
+    @Test
+    void repeatsAtFixedRate() {
+        taskScheduler.scheduleAtFixedRate(record("a"), START.plusSeconds(5), Duration.ofMinutes(10));
+
+        taskScheduler.advanceBy(Duration.ofMinutes(25));
+
+        assertThat(runs).containsExactly("a@00:00:05", "a@00:10:05", "a@00:20:05");
+        assertThat(taskScheduler.size()).isEqualTo(1);
+    }
+
+    @Test
+    void repeatsWithFixedDelay() {
+        taskScheduler.advanceBy(Duration.ofMinutes(3));
+        taskScheduler.scheduleWithFixedDelay(record("a"), Duration.ofMinutes(10));
+
+        taskScheduler.advanceBy(Duration.ofMinutes(25));
+
+        assertThat(runs).containsExactly("a@00:03", "a@00:13", "a@00:23");
+    }
+
+    @Test
+    void repeatsAsTriggered() {
+        ScheduledFuture<?> future = taskScheduler.schedule(record("a"), new CronTrigger("0 0 * * * *", ZoneOffset.UTC));
+
+        taskScheduler.advanceBy(Duration.ofHours(3));
+
+        assertThat(runs).containsExactly("a@01:00", "a@02:00", "a@03:00");
+        assertThat(future != null).isTrue();
+        assertThat(future.isDone()).isFalse();
+    }
+
+    @Test
+    void endsWhenTriggerHasNoNextExecution() {
+        AtomicInteger remaining = new AtomicInteger(2);
+        ScheduledFuture<?> future = taskScheduler.schedule(record("a"), triggerContext -> {
+            Instant last = triggerContext.lastScheduledExecution();
+            if (remaining.getAndDecrement() <= 0) {
+                return null;
+            }
+            return last == null ? START.plusSeconds(1) : last.plusSeconds(1);
+        });
+
+        taskScheduler.advanceBy(Duration.ofMinutes(1));
+
+        assertThat(runs).containsExactly("a@00:00:01", "a@00:00:02");
+        assertThat(future != null).isTrue();
+        assertThat(future.isDone()).isTrue();
+        assertThat(taskScheduler.size()).isZero();
+    }
+
+    @Test
+    void cancellingPeriodicTaskStopsIt() {
+        AtomicReference<ScheduledFuture<?>> futureRef = new AtomicReference<>();
+        Runnable record = record("a");
+        AtomicInteger aRuns = new AtomicInteger();
+        futureRef.set(taskScheduler.scheduleAtFixedRate(() -> {
+            record.run();
+            if (aRuns.incrementAndGet() == 2) {
+                futureRef.get().cancel(false);
+            }
+        }, START, Duration.ofMinutes(1)));
+        ScheduledFuture<?> other = taskScheduler.scheduleAtFixedRate(record("b"), START.plusSeconds(30), Duration.ofMinutes(1));
+
+        taskScheduler.advanceBy(Duration.ofMinutes(2));
+        other.cancel(false);
+        taskScheduler.advanceBy(Duration.ofMinutes(2));
+
+        assertThat(runs).containsExactly("a@00:00", "b@00:00:30", "a@00:01", "b@00:01:30");
+        assertThat(futureRef.get().isCancelled()).isTrue();
+        assertThat(other.isCancelled()).isTrue();
+        assertThat(taskScheduler.size()).isZero();
+    }
+
+    @Test
+    void runsTasksDueAtSameInstantInSubmissionOrder() {
+        Instant instant = START.plusSeconds(60);
+        taskScheduler.schedule(() -> {
+            runs.add("a");
+            // due now, so after the tasks already waiting for this instant
+            taskScheduler.schedule(record("d"), instant);
+        }, instant);
+        taskScheduler.schedule(record("b"), instant);
+        taskScheduler.schedule(record("c"), instant);
+        // runs first, an earlier instant wins over submission order
+        taskScheduler.schedule(record("z"), instant.minusSeconds(1));
+
+        taskScheduler.advanceTo(instant);
+
+        assertThat(runs).containsExactly("z@00:00:59", "a", "b@00:01", "c@00:01", "d@00:01");
+    }
+
+    @Test
+    void runsPastTasksAtCurrentInstant() {
+        taskScheduler.advanceBy(Duration.ofMinutes(5));
+        taskScheduler.schedule(record("a"), START);
+
+        taskScheduler.advanceBy(Duration.ZERO);
+
+        assertThat(runs).containsExactly("a@00:05");
+    }
+
+    @Test
+    void failingOneShotCompletesExceptionallyButPeriodicContinues() {
+        ScheduledFuture<?> oneShot = taskScheduler.schedule(() -> {
+            throw new IllegalStateException("one shot");
+        }, START);
+        AtomicInteger periodicRuns = new AtomicInteger();
+        taskScheduler.scheduleAtFixedRate(() -> {
+            periodicRuns.incrementAndGet();
+            throw new IllegalStateException("periodic");
+        }, START, Duration.ofMinutes(1));
+
+        taskScheduler.advanceBy(Duration.ofMinutes(2));
+
+        assertThatThrownBy(oneShot::get).isInstanceOf(ExecutionException.class).hasRootCauseMessage("one shot");
+        assertThat(periodicRuns).hasValue(3);
+    }
+
+    private Runnable record(String name) {
+        return () -> runs.add(name + "@" + taskScheduler.getClock().instant().atOffset(ZoneOffset.UTC).toLocalTime());
+    }
+
+}
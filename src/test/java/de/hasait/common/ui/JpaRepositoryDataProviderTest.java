@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.hasait.common.ui;
+
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import de.hasait.common.domain.IdAndVersion;
+import de.hasait.sprinkler.Application;
+import de.hasait.sprinkler.domain.sensor.SensorPO;
+import de.hasait.sprinkler.domain.sensor.SensorRepository;
+import de.hasait.sprinkler.domain.sensor.SensorValuePO;
+import de.hasait.sprinkler.domain.sensor.SensorValueRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("test")
+class JpaRepositoryDataProviderTest {
+
+    private static final int ROWS = 1000;
+    private static final int PAGE_SIZE = 20;
+    private static final long FIRST_ID = 300000000L;
+
+    private static final List<QuerySortOrder> NEWEST_FIRST = QuerySortOrder.desc("dateTime").build();
+
+    @Autowired
+    private SensorRepository sensorRepository;
+
+    @Autowired
+    private SensorValueRepository sensorValueRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SensorPO sensorPO;
+
+    private SensorValueRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        SensorPO newSensorPO = new SensorPO();
+        newSensorPO.setName("DataProviderTest");
+        newSensorPO.setProviderId("dummy");
+        newSensorPO.setProviderConfig("100");
+        newSensorPO.setCronExpression("0 0 0 1 1 *");
+        sensorPO = sensorRepository.save(newSensorPO);
+        insertValues(1, ROWS);
+        repository = mock(SensorValueRepository.class, delegatesTo(sensorValueRepository));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from SENSOR_VALUE where SENSOR_ID = ?", sensorPO.getId());
+        sensorRepository.delete(sensorPO);
+    }
+
+    @Test
+    void keysetReturnsSameRowsAsOffsetPaging() {
+        JpaRepositoryDataProvider<SensorValuePO, SensorValueRepository> offsetProvider = new JpaRepositoryDataProvider<>(sensorValueRepository);
+        JpaRepositoryDataProvider<SensorValuePO, SensorValueRepository> keysetProvider = new JpaRepositoryDataProvider<>(repository);
+        keysetProvider.setKeyset(true);
+
+        for (int offset = 0; offset < 10 * PAGE_SIZE; offset += PAGE_SIZE) {
+            assertThat(fetchIds(keysetProvider, offset, NEWEST_FIRST)).isEqualTo(fetchIds(offsetProvider, offset, NEWEST_FIRST));
+        }
+
+        verify(repository, times(10)).findBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class));
+        verify(repository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void usesOffsetPagingFarAwayFromKnownPositions() {
+        JpaRepositoryDataProvider<SensorValuePO, SensorValueRepository> offsetProvider = new JpaRepositoryDataProvider<>(sensorValueRepository);
+        JpaRepositoryDataProvider<SensorValuePO, SensorValueRepository> keysetProvider = new JpaRepositoryDataProvider<>(repository);
+        keysetProvider.setKeyset(true);
+
+        fetchIds(keysetProvider, 0, NEWEST_FIRST);
+        int farOffset = 40 * PAGE_SIZE;
+        assertThat(fetchIds(keysetProvider, farOffset, NEWEST_FIRST)).isEqualTo(fetchIds(offsetProvider, farOffset, NEWEST_FIRST));
+        verify(repository).findAll(any(Pageable.class));
+
+        // continues from the far page by keyset
+        clearInvocations(repository);
+        assertThat(fetchIds(keysetProvider, farOffset + PAGE_SIZE, NEWEST_FIRST)).isEqualTo(fetchIds(offsetProvider, farOffset + PAGE_SIZE, NEWEST_FIRST));
+        verify(repository).findBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class));
+        verify(repository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void slicesPrefetchedPages() {
+        JpaRepositoryDataProvider<SensorValuePO, SensorValueRepository> offsetProvider = new JpaRepositoryDataProvider<>(sensorValueRepository);
+        JpaRepositoryDataProvider<SensorValuePO, SensorValueRepository> keysetProvider = new JpaRepositoryDataProvider<>(repository);
+        keysetProvider.setKeyset(true);
+        keysetProvider.setPrefetchPages(2);
+
+        for (int offset = 0; offset < 6 * PAGE_SIZE; offset += PAGE_SIZE) {
+            assertThat(fetchIds(keysetProvider, offset, NEWEST_FIRST)).isEqualTo(fetchIds(offsetProvider, offset, NEWEST_FIRST));
+        }
+
+        // each query fetches the requested page and the two following ones
+        verify(repository, times(2)).findBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class));
+    }
+
+    @Test
+    void keepsPositionsPerSort() {
+        JpaRepositoryDataProvider<SensorValuePO, SensorValueRepository> offsetProvider = new JpaRepositoryDataProvider<>(sensorValueRepository);
+        JpaRepositoryDataProvider<SensorValuePO, SensorValueRepository> keysetProvider = new JpaRepositoryDataProvider<>(repository);
+        keysetProvider.setKeyset(true);
+        List<QuerySortOrder> oldestFirst = QuerySortOrder.asc("dateTime").build();
+
+        for (int offset = 0; offset < 30 * PAGE_SIZE; offset += PAGE_SIZE) {
+            fetchIds(keysetProvider, offset, NEWEST_FIRST);
+        }
+        fetchIds(keysetProvider, 0, oldestFirst);
+        clearInvocations(repository);
+
+        int deepOffset = 30 * PAGE_SIZE;
+        assertThat(fetchIds(keysetProvider, deepOffset, NEWEST_FIRST)).isEqualTo(fetchIds(offsetProvider, deepOffset, NEWEST_FIRST));
+        verify(repository).findBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class));
+        verify(repository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void dropsPositionsWhenCountChanges() {
+        JpaRepositoryDataProvider<SensorValuePO, SensorValueRepository> offsetProvider = new JpaRepositoryDataProvider<>(sensorValueRepository);
+        JpaRepositoryDataProvider<SensorValuePO, SensorValueRepository> keysetProvider = new JpaRepositoryDataProvider<>(repository);
+        keysetProvider.setKeyset(true);
+
+        int count = keysetProvider.size(new Query<>());
+        fetchIds(keysetProvider, 0, NEWEST_FIRST);
+        fetchIds(keysetProvider, PAGE_SIZE, NEWEST_FIRST);
+
+        // newer values shift all rows by five
+        insertValues(ROWS + 1, 5);
+        assertThat(keysetProvider.size(new Query<>())).isEqualTo(count + 5);
+
+        assertThat(fetchIds(keysetProvider, PAGE_SIZE, NEWEST_FIRST)).isEqualTo(fetchIds(offsetProvider, PAGE_SIZE, NEWEST_FIRST));
+    }
+
+    @Test
+    void reusesCountUntilExpired() throws InterruptedException {
+        JpaRepositoryDataProvider<SensorValuePO, SensorValueRepository> provider = new JpaRepositoryDataProvider<>(repository);
+        provider.setCountCacheDuration(Duration.ofMillis(500));
+
+        int count = provider.size(new Query<>());
+        insertValues(ROWS + 1, 1);
+        assertThat(provider.size(new Query<>())).isEqualTo(count);
+        provider.refreshAll();
+        assertThat(provider.size(new Query<>())).isEqualTo(count);
+        verify(repository, times(1)).count();
+
+        Thread.sleep(600);
+
+        assertThat(provider.size(new Query<>())).isEqualTo(count + 1);
+        verify(repository, times(2)).count();
+    }
+
+    private void insertValues(int first, int rows) {
+        jdbcTemplate.update("insert into SENSOR_VALUE (ID, VERSION, SENSOR_ID, DATE_TIME, INT_VALUE)" //
+                + " select ? + X, 0, ?, dateadd('MINUTE', X, timestamp '2019-01-01 00:00:00'), mod(X, 100)" //
+                + " from SYSTEM_RANGE(?, ?)", FIRST_ID, sensorPO.getId(), first, first + rows - 1);
+    }
+
+    private static List<Long> fetchIds(JpaRepositoryDataProvider<SensorValuePO, SensorValueRepository> provider, int offset, List<QuerySortOrder> sortOrders) {
+        return provider.fetch(new Query<>(offset, PAGE_SIZE, sortOrders, null, null)).map(IdAndVersion::getId).toList();
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * db/indexes.sql must create the same indexes as Hibernate does from the entities.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class IndexesScriptTest {
+
+    private static final String INDEX_NAMES_QUERY = "select INDEX_NAME from INFORMATION_SCHEMA.INDEXES where INDEX_NAME like 'IDX_%' order by INDEX_NAME";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createsNoIndexBesidesTheEntityIndexes() {
+        List<String> entityIndexNames = jdbcTemplate.queryForList(INDEX_NAMES_QUERY, String.class);
+        assertThat(entityIndexNames).contains("IDX_SENSOR_VALUE_SENSOR_ID", "IDX_SENSOR_VALUE_SENSOR_DATE_TIME", "IDX_SCHEDULE_LOG_START", "IDX_RELAY_PROVIDER");
+
+        runScript();
+        runScript();
+
+        assertThat(jdbcTemplate.queryForList(INDEX_NAMES_QUERY, String.class)).isEqualTo(entityIndexNames);
+    }
+
+    @Test
+    void createsDroppedIndex() {
+        jdbcTemplate.execute("drop index IDX_SCHEDULE_LOG_START");
+
+        runScript();
+
+        assertThat(jdbcTemplate.queryForList(INDEX_NAMES_QUERY, String.class)).contains("IDX_SCHEDULE_LOG_START");
+    }
+
+    private void runScript() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/indexes.sql")).execute(dataSource);
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler;
+
+import de.hasait.common.service.SimulatedTaskScheduler;
+import de.hasait.sprinkler.domain.sensor.SensorRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MetricsTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SensorRepository sensorRepository;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Test
+    void timesRepositoryInvocations() {
+        sensorRepository.findAll();
+
+        Timer timer = meterRegistry.find("spring.data.repository.invocations") //
+                .tag("repository", "SensorRepository") //
+                .tag("method", "findAll") //
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isPositive();
+    }
+
+    @Test
+    void exposesTimelineAndWriterQueue() {
+        assertThat(meterRegistry.find("sprinkler.timeline.entries").gauge()).isNotNull();
+        assertThat(meterRegistry.find("sprinkler.sensor.writer.queue").gauge()).isNotNull();
+        assertThat(meterRegistry.find("cache.gets").tag("cache", "cronExpression").meters()).isNotEmpty();
+    }
+
+    @Test
+    void timesScheduleHandling() {
+        assertThat(meterRegistry.find("sprinkler.schedule.lateness").timer()).isNotNull();
+        assertThat(meterRegistry.find("sprinkler.schedule.handling").timer()).isNotNull();
+    }
+
+    @Test
+    void simulatedSchedulerCountsActiveTasks() {
+        SchedulerConfiguration configuration = new SchedulerConfiguration();
+        configuration.setSimulated(true);
+        SimpleMeterRegistry simpleMeterRegistry = new SimpleMeterRegistry();
+        SimulatedTaskScheduler simulatedTaskScheduler = (SimulatedTaskScheduler) new ApplicationConfiguration().createTaskScheduler(configuration, simpleMeterRegistry);
+        Gauge active = simpleMeterRegistry.get("sprinkler.scheduler.tasks.active").gauge();
+        double[] activeWhileRunning = new double[1];
+
+        simulatedTaskScheduler.schedule(() -> activeWhileRunning[0] = active.value(), simulatedTaskScheduler.getClock().instant());
+        simulatedTaskScheduler.advanceBy(Duration.ZERO);
+
+        assertThat(activeWhileRunning[0]).isEqualTo(1);
+        assertThat(active.value()).isZero();
+    }
+
+    @Test
+    void exposesSchedulerQueue() {
+        Gauge queued = meterRegistry.find("sprinkler.scheduler.tasks.queued").gauge();
+        assertThat(queued).isNotNull();
+
+        ScheduledFuture<?> future = taskScheduler.schedule(() -> {
+        }, Instant.now().plus(Duration.ofHours(1)));
+        try {
+            assertThat(queued.value()).isGreaterThanOrEqualTo(1);
+        } finally {
+            future.cancel(false);
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler;
+
+import de.hasait.sprinkler.domain.relay.RelayPO;
+import de.hasait.sprinkler.domain.relay.RelayRepository;
+import de.hasait.sprinkler.service.relay.RelayService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Relay transitions look up relays by provider address, which must use IDX_RELAY_PROVIDER.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RelayProviderAddressTest {
+
+    @Autowired
+    private RelayRepository relayRepository;
+
+    @Autowired
+    private RelayService relayService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findsRelayByTrimmedAddress() {
+        RelayPO relayPO = new RelayPO();
+        relayPO.setName("Address");
+        relayPO.setProviderId("dummy");
+        relayPO.setProviderConfig(" address ");
+        relayRepository.save(relayPO);
+
+        assertThat(relayRepository.findByProviderAddress("dummy", "address")).extracting(RelayPO::getName).containsExactly("Address");
+    }
+
+    @Test
+    void trimsRelaysSavedUntrimmed() {
+        jdbcTemplate.update("insert into RELAY (ID, VERSION, NAME, PROVIDER_ID, PROVIDER_CONFIG) values (100000000, 0, 'Untrimmed', 'dummy', ' untrimmed ')");
+
+        relayService.trimProviderConfigs();
+
+        assertThat(relayRepository.findByProviderAddress("dummy", "untrimmed")).extracting(RelayPO::getName).containsExactly("Untrimmed");
+    }
+
+    @Test
+    void usesIndex() {
+        String plan = jdbcTemplate.queryForObject("explain select * from RELAY where PROVIDER_ID = 'dummy' and PROVIDER_CONFIG = 'address'", String.class);
+
+        assertThat(plan).contains("IDX_RELAY_PROVIDER");
+    }
+
+}
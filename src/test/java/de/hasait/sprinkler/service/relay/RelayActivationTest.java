@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.hasait.sprinkler.service.relay;
+
+import de.hasait.common.service.CronTimeline;
+import de.hasait.common.service.SimulatedTaskScheduler;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RelayActivationTest {
+
+    private static final Instant START = Instant.parse("2026-05-01T00:00:00Z");
+
+    private final SimulatedTaskScheduler taskScheduler = new SimulatedTaskScheduler(START, ZoneOffset.UTC);
+
+    private final List<String> switches = new ArrayList<>();
+
+    @Test
+    void replaysSeveralDaysOfSchedules() {
+        CronTimeline cronTimeline = new CronTimeline(taskScheduler);
+        cronTimeline.register("lawn-morning", "0 0 6 * * *", planned -> activate("lawn", Duration.ofMinutes(30)));
+        cronTimeline.register("hedge", "0 15 6 * * *", planned -> activate("hedge", Duration.ofMinutes(20)));
+        cronTimeline.register("lawn-evening", "0 0 20 */2 * *", planned -> activate("lawn", Duration.ofMinutes(10)));
+
+        taskScheduler.advanceTo(START.plus(Duration.ofDays(3)));
+
+        assertThat(switches).containsExactly( //
+                "05-01T06:00 lawn on", "05-01T06:15 hedge on", "05-01T06:30 lawn off", "05-01T06:35 hedge off", //
+                "05-01T20:00 lawn on", "05-01T20:10 lawn off", //
+                "05-02T06:00 lawn on", "05-02T06:15 hedge on", "05-02T06:30 lawn off", "05-02T06:35 hedge off", //
+                "05-03T06:00 lawn on", "05-03T06:15 hedge on", "05-03T06:30 lawn off", "05-03T06:35 hedge off", //
+                "05-03T20:00 lawn on", "05-03T20:10 lawn off" //
+        );
+        // only the single wake-up of the timeline is left
+        assertThat(taskScheduler.size()).isEqualTo(1);
+    }
+
+    @Test
+    void cancellingActiveActivationDeactivatesRightAway() {
+        RelayActivation activation = activate("lawn", Duration.ofMinutes(30));
+        taskScheduler.advanceBy(Duration.ofMinutes(10));
+        assertThat(activation.getDelay(TimeUnit.MINUTES)).isEqualTo(20);
+
+        assertThat(activation.cancel(false)).isTrue();
+        assertThat(activation.isDone()).isTrue();
+        assertThat(activation.cancel(false)).isFalse();
+
+        assertThat(switches).containsExactly("05-01T00:00 lawn on", "05-01T00:10 lawn off");
+        assertThat(activation.isCancelled()).isTrue();
+        assertThat(activation.isDone()).isTrue();
+        assertThat(taskScheduler.size()).isZero();
+    }
+
+    @Test
+    void cancellingPendingActivationNeverActivates() {
+        RelayActivation activation = activate("lawn", Duration.ofMinutes(30));
+
+        assertThat(activation.cancel(false)).isTrue();
+        taskScheduler.advanceBy(Duration.ofHours(1));
+
+        assertThat(switches).isEmpty();
+        assertThat(activation.isCancelled()).isTrue();
+        assertThat(activation.whenDone().toCompletableFuture()).isCompletedExceptionally();
+    }
+
+    @Test
+    void startKeepsDeactivationOfImmediateActivation() {
+        TaskScheduler immediateScheduler = mock(TaskScheduler.class);
+        when(immediateScheduler.getClock()).thenReturn(taskScheduler.getClock());
+        ScheduledFuture<?> activationFuture = mock(ScheduledFuture.class);
+        ScheduledFuture<?> deactivationFuture = mock(ScheduledFuture.class);
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Runnable.class).run();
+            return activationFuture;
+        }).doReturn(deactivationFuture).when(immediateScheduler).schedule(any(Runnable.class), any(Instant.class));
+        RelayActivation activation = new RelayActivation(immediateScheduler, Duration.ofMinutes(30).toMillis(), () -> record("lawn", "on"), () -> record("lawn", "off"));
+        activation.start();
+
+        assertThat(activation.cancel(false)).isTrue();
+
+        verify(deactivationFuture).cancel(false);
+        assertThat(switches).containsExactly("05-01T00:00 lawn on", "05-01T00:00 lawn off");
+        assertThat(activation.isDone()).isTrue();
+    }
+
+    private RelayActivation activate(String relay, Duration duration) {
+        RelayActivation activation = new RelayActivation(taskScheduler, duration.toMillis(), () -> record(relay, "on"), () -> record(relay, "off"));
+        activation.start();
+        return activation;
+    }
+
+    private void record(String relay, String state) {
+        String instant = taskScheduler.getClock().instant().toString().substring(5, 16);
+        switches.add(instant + " " + relay + " " + state);
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.hasait.sprinkler.service.relay;
+
+import de.hasait.common.service.SimulatedTaskScheduler;
+import de.hasait.sprinkler.domain.relay.RelayPO;
+import de.hasait.sprinkler.domain.relay.RelayRepository;
+import de.hasait.sprinkler.service.relay.provider.RelayProviderService;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RelayServiceTest {
+
+    private final RelayRepository repository = mock(RelayRepository.class);
+    private final RelayProviderService providerService = mock(RelayProviderService.class);
+    private final SimulatedTaskScheduler taskScheduler = new SimulatedTaskScheduler(Instant.parse("2026-05-01T06:00:00Z"), ZoneOffset.UTC);
+    private final RelayService relayService = new RelayService(repository, providerService, taskScheduler);
+
+    @Test
+    void shutdownDeactivatesActiveRelays() {
+        addRelay(1L, "valve1");
+        addRelay(2L, "valve2");
+
+        RelayActivation activation1 = relayService.scheduleNow(1L, Duration.ofHours(1).toMillis(), "test");
+        taskScheduler.advanceBy(Duration.ofMinutes(1));
+        RelayActivation activation2 = relayService.scheduleNow(2L, Duration.ofHours(1).toMillis(), "test");
+
+        relayService.shutdown();
+
+        InOrder inOrder = inOrder(providerService);
+        inOrder.verify(providerService).changeActive("dummy", "valve1", 1);
+        inOrder.verify(providerService).changeActive("dummy", "valve1", -1);
+        verify(providerService, never()).changeActive(eq("dummy"), eq("valve2"), anyInt());
+        assertThat(activation1.isDone()).isTrue();
+        assertThat(activation1.isCancelled()).isTrue();
+        assertThat(activation2.isDone()).isTrue();
+        assertThat(taskScheduler.size()).isZero();
+    }
+
+    @Test
+    void shutdownIgnoresFinishedActivations() {
+        addRelay(1L, "valve1");
+
+        RelayActivation activation = relayService.scheduleNow(1L, Duration.ofMinutes(10).toMillis(), "test");
+        taskScheduler.advanceBy(Duration.ofMinutes(11));
+        assertThat(activation.isDone()).isTrue();
+
+        relayService.shutdown();
+
+        verify(providerService).changeActive("dummy", "valve1", 1);
+        verify(providerService).changeActive("dummy", "valve1", -1);
+        verify(providerService, never()).changeActive("dummy", "valve1", -10000);
+    }
+
+    private void addRelay(long id, String name) {
+        RelayPO relayPO = new RelayPO();
+        relayPO.setId(id);
+        relayPO.setName(name);
+        relayPO.setProviderId("dummy");
+        relayPO.setProviderConfig(name);
+        when(repository.findById(id)).thenReturn(Optional.of(relayPO));
+    }
+
+}
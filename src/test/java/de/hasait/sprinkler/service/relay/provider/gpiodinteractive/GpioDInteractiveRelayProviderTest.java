@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.relay.provider.gpiodinteractive;
+
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GpioDInteractiveRelayProviderTest {
+
+    @Test
+    void requestsLineOnceAndKeepsItOpen() {
+        FakeGpioChip chip = new FakeGpioChip();
+        GpioDInteractiveRelayProvider provider = new GpioDInteractiveRelayProvider(chip, null);
+
+        provider.changeActive("GPIO17", 1);
+        provider.changeActive("GPIO17", -1);
+        provider.changeActive("GPIO17", 1);
+
+        assertThat(chip.lines).hasSize(1);
+        FakeGpioLine line = chip.lines.get(0);
+        assertThat(line.values).containsExactly(false, true, false, true);
+        assertThat(line.closed).isFalse();
+
+        provider.shutdown();
+
+        assertThat(line.closed).isTrue();
+    }
+
+    @Test
+    void requestsLineAgainIfLost() {
+        FakeGpioChip chip = new FakeGpioChip();
+        GpioDInteractiveRelayProvider provider = new GpioDInteractiveRelayProvider(chip, null);
+
+        provider.changeActive("GPIO17", 1);
+        chip.lines.get(0).valid = false;
+        provider.changeActive("GPIO17", -1);
+
+        assertThat(chip.lines).hasSize(2);
+        assertThat(chip.lines.get(0).closed).isTrue();
+        assertThat(chip.lines.get(1).values).containsExactly(false);
+    }
+
+    @Test
+    void failsIfLineIsLostAgainRightAfterRequest() {
+        FakeGpioChip chip = new FakeGpioChip();
+        GpioDInteractiveRelayProvider provider = new GpioDInteractiveRelayProvider(chip, null);
+
+        provider.changeActive("GPIO17", 1);
+        chip.lines.get(0).valid = false;
+        chip.nextValid = false;
+
+        assertThatThrownBy(() -> provider.changeActive("GPIO17", -1)).hasMessageContaining("GPIO17");
+
+        assertThat(chip.lines).hasSize(2);
+        assertThat(chip.lines.get(1).closed).isTrue();
+        assertThat(provider.getConfigInfo("GPIO17")).isNull();
+        assertThat(provider.isActive("GPIO17")).isTrue();
+    }
+
+    private static class FakeGpioChip implements GpioChip {
+
+        private final List<FakeGpioLine> lines = new ArrayList<>();
+        private boolean nextValid = true;
+
+        @Nonnull
+        @Override
+        public GpioLine requestOutput(@Nonnull String lineName, boolean initialValue) {
+            FakeGpioLine line = new FakeGpioLine();
+            line.valid = nextValid;
+            line.values.add(initialValue);
+            lines.add(line);
+            return line;
+        }
+
+    }
+
+    private static class FakeGpioLine implements GpioLine {
+
+        private final List<Boolean> values = new ArrayList<>();
+        private boolean valid = true;
+        private boolean closed;
+
+        @Override
+        public boolean isValid() {
+            return valid && !closed;
+        }
+
+        @Override
+        public void setValue(boolean value) {
+            values.add(value);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.relay.provider.gpiodinteractive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs shell scripts in place of gpioset.
+ */
+class GpioSetInteractiveChipTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void failsIfGpiosetExitsRightAway() throws IOException {
+        GpioSetInteractiveChip chip = new GpioSetInteractiveChip(script("echo \"cannot find line '$2'\" >&2\nexit 1"));
+
+        assertThatThrownBy(() -> chip.requestOutput("GPIO99", false)) //
+                .hasMessageContaining("GPIO99") //
+                .hasMessageContaining("exited with 1") //
+                .hasMessageContaining("cannot find line");
+    }
+
+    @Test
+    void writesValuesToRunningGpioset() throws IOException {
+        Path out = tempDir.resolve("out.txt");
+        GpioSetInteractiveChip chip = new GpioSetInteractiveChip(script("cat > " + out));
+
+        GpioLine line = chip.requestOutput("GPIO17", false);
+        assertThat(line.isValid()).isTrue();
+        line.setValue(true);
+        line.close();
+
+        assertThat(line.isValid()).isFalse();
+        assertThat(Files.readAllLines(out)).containsExactly("set GPIO17=1", "exit");
+    }
+
+    @Test
+    void failsToSetValueAfterGpiosetExited() throws IOException {
+        Path marker = tempDir.resolve("marker");
+        GpioSetInteractiveChip chip = new GpioSetInteractiveChip(script("while [ ! -e " + marker + " ]; do sleep 0.05; done\necho \"line released\" >&2\nexit 2"));
+
+        GpioLine line = chip.requestOutput("GPIO17", false);
+        Files.createFile(marker);
+
+        assertThatThrownBy(() -> {
+            while (line.isValid()) {
+                Thread.onSpinWait();
+            }
+            line.setValue(true);
+        }).hasMessageContaining("exited with 2").hasMessageContaining("line released");
+    }
+
+    private String script(String body) throws IOException {
+        Path script = tempDir.resolve("gpioset");
+        Files.writeString(script, "#!/bin/sh\n" + body + "\n");
+        Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwx------"));
+        return script.toString();
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.hasait.sprinkler.service.relay.provider.taspow;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TasmotaClientTest {
+
+    private final List<String> log = new CopyOnWriteArrayList<>();
+    private final CountDownLatch releaseSlow = new CountDownLatch(1);
+
+    private HttpServer server;
+    private String host;
+    private TasmotaClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        // several threads, so that the server would answer requests concurrently if the client sent them concurrently
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/cm", exchange -> {
+            String query = exchange.getRequestURI().getRawQuery();
+            String command = URLDecoder.decode(query.substring("cmnd=".length()), StandardCharsets.UTF_8);
+            log.add("start " + command);
+            if (command.startsWith("Slow")) {
+                try {
+                    releaseSlow.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            log.add("end " + command);
+            byte[] body = ("{\"" + command + "\":\"OK\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        host = "127.0.0.1:" + server.getAddress().getPort();
+        client = new TasmotaClient(new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSlow.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void combinesPowerChangesWithinWindowIntoBacklog() {
+        CompletableFuture<String> power1 = client.setPower(host, 1, true);
+        CompletableFuture<String> power2 = client.setPower(host, 2, false);
+
+        assertThat(power1.join()).isEqualTo("{\"Backlog Power1 1; Power2 0\":\"OK\"}");
+        assertThat(power2).isSameAs(power1);
+        assertThat(log).containsExactly("start Backlog Power1 1; Power2 0", "end Backlog Power1 1; Power2 0");
+    }
+
+    @Test
+    void laterChangeOfSameIndexWithinWindowWins() {
+        client.setPower(host, 1, true);
+        client.setPower(host, 1, false).join();
+
+        assertThat(log).containsExactly("start Power1 0", "end Power1 0");
+    }
+
+    @Test
+    void separateWindowsAreSeparateCommands() {
+        client.setPower(host, 1, true).join();
+        client.setPower(host, 1, false).join();
+
+        assertThat(log).containsExactly("start Power1 1", "end Power1 1", "start Power1 0", "end Power1 0");
+    }
+
+    @Test
+    void sendsCommandsForSameHostInSubmissionOrder() {
+        CompletableFuture<String> slow = client.sendCommand(host, "Slow");
+        CompletableFuture<String> second = client.sendCommand(host, "Second");
+        CompletableFuture<String> third = client.sendCommand(host, "Third");
+
+        releaseSlow.countDown();
+        CompletableFuture.allOf(slow, second, third).join();
+
+        assertThat(log).containsExactly("start Slow", "end Slow", "start Second", "end Second", "start Third", "end Third");
+    }
+
+    @Test
+    void forgetsHostOnceItsCommandsAreDone() {
+        CompletableFuture<String> slow = client.sendCommand(host, "Slow");
+        CompletableFuture<String> second = client.sendCommand(host, "Second");
+
+        releaseSlow.countDown();
+        slow.join();
+        assertThat(client.getHostsWithPendingCommands()).isEqualTo(1);
+        second.join();
+        assertThat(client.getHostsWithPendingCommands()).isZero();
+    }
+
+    @Test
+    void doesNotDelayOtherHosts() {
+        CompletableFuture<String> slow = client.sendCommand(host, "Slow");
+        String otherHost = "localhost:" + server.getAddress().getPort();
+
+        assertThat(client.sendCommand(otherHost, "Other").join()).isEqualTo("{\"Other\":\"OK\"}");
+        assertThat(slow).isNotDone();
+
+        releaseSlow.countDown();
+        slow.join();
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.hasait.sprinkler.service.relay.provider.taspow;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TasmotaPowerRelayProviderTest {
+
+    private static final String CONFIG = "plug;1";
+
+    @Test
+    void rollsBackFailedActivation() {
+        TasmotaClient client = mock(TasmotaClient.class);
+        CompletableFuture<String> init = CompletableFuture.completedFuture("{}");
+        CompletableFuture<String> activation = new CompletableFuture<>();
+        when(client.setPower(eq("plug"), anyInt(), anyBoolean())).thenReturn(init, activation);
+        TasmotaPowerRelayProvider provider = new TasmotaPowerRelayProvider(client);
+        List<Boolean> transitions = new CopyOnWriteArrayList<>();
+        provider.addTransitionListener((providerId, address, active) -> transitions.add(active));
+
+        provider.changeActive(CONFIG, 1);
+        assertThat(provider.isActive(CONFIG)).isTrue();
+
+        activation.completeExceptionally(new RuntimeException("unreachable"));
+
+        assertThat(transitions).containsExactly(true, false);
+        assertThat(provider.getConfigInfo(CONFIG)).isEqualTo("Power on failed: unreachable");
+        assertThat(provider.isActive(CONFIG)).isFalse();
+    }
+
+    @Test
+    void keepsStateChangedAfterFailedChange() {
+        TasmotaClient client = mock(TasmotaClient.class);
+        CompletableFuture<String> activation = new CompletableFuture<>();
+        when(client.setPower(eq("plug"), anyInt(), anyBoolean())).thenReturn(CompletableFuture.completedFuture("{}"), activation,
+                CompletableFuture.completedFuture("{}"));
+        TasmotaPowerRelayProvider provider = new TasmotaPowerRelayProvider(client);
+        List<Boolean> transitions = new CopyOnWriteArrayList<>();
+        provider.addTransitionListener((providerId, address, active) -> transitions.add(active));
+
+        provider.changeActive(CONFIG, 1);
+        provider.changeActive(CONFIG, -1);
+
+        activation.completeExceptionally(new RuntimeException("unreachable"));
+
+        assertThat(transitions).containsExactly(true, false);
+        assertThat(provider.isActive(CONFIG)).isFalse();
+    }
+
+    @Test
+    void clearsFailureAfterSuccess() {
+        TasmotaClient client = mock(TasmotaClient.class);
+        CompletableFuture<String> activation = new CompletableFuture<>();
+        CompletableFuture<String> ok = CompletableFuture.completedFuture("{}");
+        when(client.setPower(eq("plug"), anyInt(), anyBoolean())).thenReturn(ok, activation, ok);
+        TasmotaPowerRelayProvider provider = new TasmotaPowerRelayProvider(client);
+
+        provider.changeActive(CONFIG, 1);
+        activation.completeExceptionally(new RuntimeException("unreachable"));
+        assertThat(provider.getConfigInfo(CONFIG)).isNotNull();
+
+        provider.changeActive(CONFIG, 1);
+        assertThat(provider.getConfigInfo(CONFIG)).isNull();
+        assertThat(provider.isActive(CONFIG)).isTrue();
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.hasait.sprinkler.service.sensor;
+
+import de.hasait.common.service.CronTimeline;
+import de.hasait.common.service.SimulatedTaskScheduler;
+import de.hasait.sprinkler.SchedulerConfiguration;
+import de.hasait.sprinkler.domain.sensor.SensorPO;
+import de.hasait.sprinkler.domain.sensor.SensorRepository;
+import de.hasait.sprinkler.domain.sensor.SensorValuePO;
+import de.hasait.sprinkler.service.sensor.provider.SensorProviderService;
+import de.hasait.sprinkler.service.sensor.provider.SensorValue;
+import de.hasait.sprinkler.service.sensor.publish.SensorValuePublisher;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SensorTaskServiceTest {
+
+    private static final LocalDateTime READ_AT = LocalDateTime.of(2026, 5, 1, 11, 55);
+
+    private final SensorRepository repository = mock(SensorRepository.class);
+    private final SensorProviderService providerService = mock(SensorProviderService.class);
+    private final SensorValueWriter sensorValueWriter = mock(SensorValueWriter.class);
+    private final CronTimeline cronTimeline = mock(CronTimeline.class);
+    private final SensorValuePublisher sensorValuePublisher = mock(SensorValuePublisher.class);
+    private final SimulatedTaskScheduler taskScheduler = new SimulatedTaskScheduler(Instant.parse("2026-05-01T12:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void savesFreshValue() throws Exception {
+        Consumer<Instant> read = createServiceAndCaptureRead(new SensorValue(READ_AT, 7));
+
+        read.accept(taskScheduler.getClock().instant());
+        taskScheduler.advanceBy(Duration.ZERO);
+
+        ArgumentCaptor<SensorValuePO> saved = ArgumentCaptor.forClass(SensorValuePO.class);
+        verify(sensorValueWriter).submit(saved.capture());
+        assertThat(saved.getValue().getDateTime()).isEqualTo(READ_AT);
+        assertThat(saved.getValue().getIntValue()).isEqualTo(7);
+        verify(sensorValuePublisher).publish(saved.getValue());
+    }
+
+    @Test
+    void doesNotSaveStaleValueAgain() throws Exception {
+        Consumer<Instant> read = createServiceAndCaptureRead(new SensorValue(READ_AT, 7).asStale());
+
+        read.accept(taskScheduler.getClock().instant());
+        taskScheduler.advanceBy(Duration.ZERO);
+
+        verify(sensorValueWriter, never()).submit(any());
+        verify(sensorValuePublisher, never()).publish(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Consumer<Instant> createServiceAndCaptureRead(SensorValue sensorValue) {
+        SensorPO sensorPO = new SensorPO();
+        sensorPO.setId(1L);
+        sensorPO.setName("rain");
+        sensorPO.setProviderId("hww-gis");
+        sensorPO.setProviderConfig("config");
+        sensorPO.setCronExpression("0 * * * * *");
+        when(repository.findAll()).thenReturn(List.of(sensorPO));
+        when(repository.findById(1L)).thenReturn(Optional.of(sensorPO));
+        when(providerService.obtainValueAsync("hww-gis", "config")).thenReturn(CompletableFuture.completedFuture(sensorValue));
+
+        SchedulerConfiguration schedulerConfiguration = new SchedulerConfiguration();
+        schedulerConfiguration.setSimulated(true);
+        new SensorTaskService(repository, providerService, mock(SensorService.class), sensorValueWriter, cronTimeline, sensorValuePublisher, schedulerConfiguration, taskScheduler);
+
+        ArgumentCaptor<Consumer<Instant>> read = ArgumentCaptor.forClass(Consumer.class);
+        verify(cronTimeline).register(eq("sensor-1"), eq("0 * * * * *"), read.capture());
+        return read.getValue();
+    }
+
+}
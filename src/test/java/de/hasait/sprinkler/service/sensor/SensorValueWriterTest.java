@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.hasait.sprinkler.service.sensor;
+
+import de.hasait.sprinkler.domain.sensor.SensorPO;
+import de.hasait.sprinkler.domain.sensor.SensorValuePO;
+import de.hasait.sprinkler.domain.sensor.SensorValueRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SensorValueWriterTest {
+
+    @Test
+    void savesRowByRowIfBatchKeepsFailing() throws InterruptedException {
+        SensorValueRepository valueRepository = mock(SensorValueRepository.class);
+        SensorService sensorService = mock(SensorService.class);
+        SensorValueRollupService rollupService = mock(SensorValueRollupService.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        SensorValuePO good1 = createValue(1);
+        SensorValuePO bad = createValue(2);
+        SensorValuePO good2 = createValue(3);
+        when(valueRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<?> sensorValuePOs = invocation.getArgument(0);
+            if (sensorValuePOs.size() > 1) {
+                throw new DataIntegrityViolationException("batch");
+            }
+            if (sensorValuePOs.contains(bad)) {
+                throw new DataIntegrityViolationException("row");
+            }
+            return sensorValuePOs;
+        });
+
+        SensorValueWriter writer = new SensorValueWriter(valueRepository, sensorService, rollupService, TransactionOperations.withoutTransaction(), meterRegistry);
+        writer.submit(good1);
+        writer.submit(bad);
+        writer.submit(good2);
+        writer.start();
+        writer.shutdown();
+
+        // 3 attempts for the batch, then each value alone
+        verify(valueRepository, times(6)).saveAll(anyList());
+        verify(sensorService).addValue(good1);
+        verify(sensorService).addValue(good2);
+        verify(sensorService, times(2)).addValue(any());
+        verify(rollupService).addValues(List.of(good1));
+        verify(rollupService).addValues(List.of(good2));
+        verify(rollupService, times(2)).addValues(anyList());
+        assertThat(meterRegistry.get("sprinkler.sensor.writer.dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsBatchIfRetrySucceeds() throws InterruptedException {
+        SensorValueRepository valueRepository = mock(SensorValueRepository.class);
+        SensorService sensorService = mock(SensorService.class);
+        SensorValueRollupService rollupService = mock(SensorValueRollupService.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        SensorValuePO value = createValue(1);
+        when(valueRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("batch")).thenReturn(List.of(value));
+
+        SensorValueWriter writer = new SensorValueWriter(valueRepository, sensorService, rollupService, TransactionOperations.withoutTransaction(), meterRegistry);
+        writer.start();
+        value.setId(42L);
+        writer.submit(value);
+
+        verify(sensorService, timeout(5000)).addValue(value);
+        writer.shutdown();
+
+        verify(valueRepository, times(2)).saveAll(anyList());
+        verify(rollupService).addValues(anyList());
+        assertThat(value.getId()).isNull();
+        assertThat(meterRegistry.get("sprinkler.sensor.writer.dropped").counter().count()).isZero();
+    }
+
+    @Test
+    void retriesBatchTogetherWithFailedRollup() throws InterruptedException {
+        SensorValueRepository valueRepository = mock(SensorValueRepository.class);
+        SensorService sensorService = mock(SensorService.class);
+        SensorValueRollupService rollupService = mock(SensorValueRollupService.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        SensorValuePO value = createValue(1);
+        when(valueRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        // the batch is cleared once it is written
+        List<List<SensorValuePO>> rollupBatches = new ArrayList<>();
+        doAnswer(invocation -> {
+            rollupBatches.add(List.copyOf(invocation.getArgument(0)));
+            if (rollupBatches.size() == 1) {
+                throw new DataIntegrityViolationException("rollup");
+            }
+            return null;
+        }).when(rollupService).addValues(anyList());
+
+        SensorValueWriter writer = new SensorValueWriter(valueRepository, sensorService, rollupService, TransactionOperations.withoutTransaction(), meterRegistry);
+        writer.start();
+        writer.submit(value);
+
+        verify(sensorService, timeout(5000)).addValue(value);
+        writer.shutdown();
+
+        verify(valueRepository, times(2)).saveAll(anyList());
+        assertThat(rollupBatches).containsExactly(List.of(value), List.of(value));
+        verify(sensorService).addValue(any());
+        assertThat(meterRegistry.get("sprinkler.sensor.writer.dropped").counter().count()).isZero();
+    }
+
+    private static SensorValuePO createValue(int intValue) {
+        SensorPO sensorPO = new SensorPO();
+        sensorPO.setId(1L);
+        SensorValuePO sensorValuePO = new SensorValuePO();
+        sensorValuePO.setSensor(sensorPO);
+        sensorValuePO.setDateTime(LocalDateTime.of(2026, 5, 1, 12, 0));
+        sensorValuePO.setIntValue(intValue);
+        return sensorValuePO;
+    }
+
+}
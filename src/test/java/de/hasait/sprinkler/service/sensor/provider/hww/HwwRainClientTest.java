@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.hasait.sprinkler.service.sensor.provider.hww;
+
+import com.google.gson.stream.JsonReader;
+import de.hasait.common.service.SimulatedTaskScheduler;
+import de.hasait.sprinkler.service.sensor.provider.SensorValue;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HwwRainClientTest {
+
+    private static final long ENDE_OLD = 1780000000000L;
+    private static final long ENDE_NEW = ENDE_OLD + 300000L;
+    private static final LocalDateTime WINDOW = LocalDateTime.of(2026, 5, 1, 12, 0);
+
+    private static final HwwRainClient.Position P1 = new HwwRainClient.Position(10, 10);
+    private static final HwwRainClient.Position P2 = new HwwRainClient.Position(50, 50);
+    private static final HwwRainClient.Position P3 = new HwwRainClient.Position(90, 90);
+
+    /**
+     * P1 in A; P2 in B; P3 in the hole of B, so only in the older C.
+     */
+    private static final String MULTIPOINT_RESPONSE = "{\"features\":[" //
+            + feature(ENDE_NEW, 4, "[" + square(0, 20) + "]") + "," //
+            + feature(ENDE_NEW, 8, "[" + square(30, 100) + "," + square(80, 95) + "]") + "," //
+            + feature(ENDE_OLD, 100, "[" + square(0, 100) + "]") //
+            + "]}";
+
+    private static final String POINT_RESPONSE = "{\"features\":[" //
+            + feature(ENDE_NEW, 4, null) + "," //
+            + feature(ENDE_NEW, 7, null) + "," //
+            + feature(ENDE_OLD, 100, null) //
+            + "]}";
+
+    private final SimulatedTaskScheduler taskScheduler = new SimulatedTaskScheduler(Instant.parse("2026-05-01T12:10:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void parseMultipointAssignsFeaturesByRings() throws IOException {
+        Map<HwwRainClient.Position, HwwRainClient.RainAggregate> aggregateByPosition = parse(MULTIPOINT_RESPONSE, true, P1, P2, P3);
+
+        assertValue(aggregateByPosition.get(P1), ENDE_NEW, 4);
+        assertValue(aggregateByPosition.get(P2), ENDE_NEW, 8);
+        assertValue(aggregateByPosition.get(P3), ENDE_OLD, 100);
+    }
+
+    @Test
+    void parsePointAveragesLatestFeatures() throws IOException {
+        Map<HwwRainClient.Position, HwwRainClient.RainAggregate> aggregateByPosition = parse(POINT_RESPONSE, false, P1);
+
+        assertValue(aggregateByPosition.get(P1), ENDE_NEW, 5);
+    }
+
+    @Test
+    void parseEmptyResultIsDry() throws IOException {
+        Map<HwwRainClient.Position, HwwRainClient.RainAggregate> aggregateByPosition = parse("{\"features\":[]}", true, P1, P2);
+
+        SensorValue sensorValue = aggregateByPosition.get(P1).createValue(taskScheduler.getClock());
+        assertThat(sensorValue.getValue()).isZero();
+        assertThat(sensorValue.getDateTime()).isEqualTo(LocalDateTime.of(2026, 5, 1, 12, 10));
+    }
+
+    @Test
+    void parseAssignsFeatureToPositionOnBoundary() throws IOException {
+        HwwRainClient.Position onEdge = new HwwRainClient.Position(20, 10);
+        HwwRainClient.Position onCorner = new HwwRainClient.Position(20, 20);
+        String response = "{\"features\":[" + feature(ENDE_NEW, 4, "[" + square(0, 20) + "]") + "]}";
+
+        Map<HwwRainClient.Position, HwwRainClient.RainAggregate> aggregateByPosition = parse(response, true, onEdge, onCorner, P2);
+
+        assertValue(aggregateByPosition.get(onEdge), ENDE_NEW, 4);
+        assertValue(aggregateByPosition.get(onCorner), ENDE_NEW, 4);
+        assertThat(aggregateByPosition.get(P2).isEmpty()).isTrue();
+    }
+
+    @Test
+    void parseSkipsFeatureWithoutRings() throws IOException {
+        String response = "{\"features\":[" + feature(ENDE_NEW, 4, null) + "]}";
+
+        assertThat(parseSkipped(response, P1, P2)).isEqualTo(1);
+    }
+
+    @Test
+    void parseSkipsFeatureMatchingNoPosition() throws IOException {
+        String response = "{\"features\":[" + feature(ENDE_NEW, 4, "[" + square(200, 300) + "]") + "," + feature(ENDE_NEW, 8, "[" + square(0, 20) + "]") + "]}";
+
+        assertThat(parseSkipped(response, P1, P2)).isEqualTo(1);
+    }
+
+    @Test
+    void skippedFeatureOnlyFailsPositionsWithoutFeature() throws Exception {
+        String response = "{\"features\":[" + feature(ENDE_NEW, 4, "[" + square(200, 300) + "]") + "," + feature(ENDE_NEW, 8, "[" + square(0, 20) + "]") + "]}";
+        HwwRainClient client = new HwwRainClient(5, taskScheduler.getClock(), url -> new StringReader(response));
+
+        CompletableFuture<SensorValue> value1 = client.query(1, 25832, WINDOW, 10, 10);
+        CompletableFuture<SensorValue> value2 = client.query(1, 25832, WINDOW, 50, 50);
+
+        assertThat(get(value1).getValue()).isEqualTo(8);
+        assertThatThrownBy(() -> get(value2)).isInstanceOf(ExecutionException.class).hasRootCauseMessage("No feature assigned to 50.0,50.0 - skipped features could belong to it");
+    }
+
+    @Test
+    void parseFailsForErrorResponse() {
+        assertThatThrownBy(() -> parse("{\"error\":{\"code\":400}}", false, P1)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void coalescesPositionsOfSameLayerAndWindow() throws Exception {
+        List<URL> urls = Collections.synchronizedList(new ArrayList<>());
+        HwwRainClient client = new HwwRainClient(5, taskScheduler.getClock(), url -> {
+            urls.add(url);
+            return new StringReader(url.getPath().contains("/1/") ? MULTIPOINT_RESPONSE : POINT_RESPONSE);
+        });
+
+        CompletableFuture<SensorValue> value1 = client.query(1, 25832, WINDOW, 10, 10);
+        CompletableFuture<SensorValue> value2 = client.query(1, 25832, WINDOW, 50, 50);
+        CompletableFuture<SensorValue> value1Again = client.query(1, 25832, WINDOW, 10, 10);
+        CompletableFuture<SensorValue> valueOtherLayer = client.query(2, 25832, WINDOW, 10, 10);
+
+        assertThat(get(value1).getValue()).isEqualTo(4);
+        assertThat(get(value2).getValue()).isEqualTo(8);
+        assertThat(get(value1Again).getValue()).isEqualTo(4);
+        assertThat(get(valueOtherLayer).getValue()).isEqualTo(5);
+
+        assertThat(urls).hasSize(2);
+        String multipointQuery = findQuery(urls, "/1/");
+        assertThat(multipointQuery).contains("geometryType=esriGeometryMultipoint", "{\"points\":[[10.0,10.0],[50.0,50.0]]}", "returnGeometry=true");
+        String pointQuery = findQuery(urls, "/2/");
+        assertThat(pointQuery).contains("geometryType=esriGeometryPoint", "geometry=10.0,10.0", "returnGeometry=false");
+    }
+
+    @Test
+    void cachesValueForWindowAndFallsBackToStaleValue() throws Exception {
+        List<URL> urls = Collections.synchronizedList(new ArrayList<>());
+        boolean[] failing = new boolean[1];
+        HwwRainClient client = new HwwRainClient(5, taskScheduler.getClock(), url -> {
+            urls.add(url);
+            if (failing[0]) {
+                throw new IOException("unavailable");
+            }
+            return new StringReader(POINT_RESPONSE);
+        });
+
+        assertThat(get(client.query(2, 25832, WINDOW, 10, 10)).getValue()).isEqualTo(5);
+        SensorValue cachedValue = get(client.query(2, 25832, WINDOW, 10, 10));
+        assertThat(cachedValue.getValue()).isEqualTo(5);
+        assertThat(cachedValue.isStale()).isFalse();
+        assertThat(urls).hasSize(1);
+
+        failing[0] = true;
+        taskScheduler.advanceBy(Duration.ofMinutes(5));
+        SensorValue staleValue = get(client.query(2, 25832, WINDOW, 10, 10));
+        assertThat(staleValue.getValue()).isEqualTo(5);
+        assertThat(staleValue.isStale()).isTrue();
+        assertThat(staleValue.getDateTime()).isEqualTo(LocalDateTime.ofEpochSecond(ENDE_NEW / 1000, 0, ZoneOffset.UTC));
+        assertThat(urls).hasSize(2);
+
+        taskScheduler.advanceBy(Duration.ofMinutes(60));
+        CompletableFuture<SensorValue> expired = client.query(2, 25832, WINDOW, 10, 10);
+        assertThatThrownBy(() -> get(expired)).isInstanceOf(ExecutionException.class).hasRootCauseMessage("unavailable");
+        assertThat(urls).hasSize(3);
+    }
+
+    private static Map<HwwRainClient.Position, HwwRainClient.RainAggregate> parse(String response, boolean multipoint, HwwRainClient.Position... positions) throws IOException {
+        Map<HwwRainClient.Position, HwwRainClient.RainAggregate> aggregateByPosition = new LinkedHashMap<>();
+        for (HwwRainClient.Position position : positions) {
+            aggregateByPosition.put(position, new HwwRainClient.RainAggregate());
+        }
+        try (JsonReader reader = new JsonReader(new StringReader(response))) {
+            HwwRainClient.parseResult(reader, multipoint, aggregateByPosition);
+        }
+        return aggregateByPosition;
+    }
+
+    private static int parseSkipped(String response, HwwRainClient.Position... positions) throws IOException {
+        Map<HwwRainClient.Position, HwwRainClient.RainAggregate> aggregateByPosition = new LinkedHashMap<>();
+        for (HwwRainClient.Position position : positions) {
+            aggregateByPosition.put(position, new HwwRainClient.RainAggregate());
+        }
+        try (JsonReader reader = new JsonReader(new StringReader(response))) {
+            return HwwRainClient.parseResult(reader, true, aggregateByPosition);
+        }
+    }
+
+    private void assertValue(HwwRainClient.RainAggregate aggregate, long ende, int regenhoehe) {
+        SensorValue sensorValue = aggregate.createValue(taskScheduler.getClock());
+        assertThat(sensorValue.getDateTime()).isEqualTo(LocalDateTime.ofEpochSecond(ende / 1000, 0, ZoneOffset.UTC));
+        assertThat(sensorValue.getValue()).isEqualTo(regenhoehe);
+    }
+
+    private static SensorValue get(CompletableFuture<SensorValue> future) throws ExecutionException, InterruptedException, TimeoutException {
+        return future.get(5, TimeUnit.SECONDS);
+    }
+
+    private static String findQuery(List<URL> urls, String layerPath) {
+        return urls.stream() //
+                .filter(url -> url.getPath().contains(layerPath)) //
+                .map(url -> URLDecoder.decode(url.getQuery(), StandardCharsets.UTF_8)) //
+                .findFirst() //
+                .orElseThrow();
+    }
+
+    private static String feature(long ende, int regenhoehe, String rings) {
+        String feature = "{\"attributes\":{\"OBJECTID\":1,\"ende\":" + ende + ",\"regenhoehe\":" + regenhoehe + "}";
+        if (rings != null) {
+            feature += ",\"geometry\":{\"rings\":" + rings + "}";
+        }
+        return feature + "}";
+    }
+
+    private static String square(int min, int max) {
+        return "[[" + min + "," + min + "],[" + max + "," + min + "],[" + max + "," + max + "],[" + min + "," + max + "],[" + min + "," + min + "]]";
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2026 by Sebastian Hasait (sebastian at hasait dot de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.hasait.sprinkler.service.sensor.publish;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
+import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MqttOutboxTest {
+
+    private final List<String> publishedTopics = new ArrayList<>();
+    private final List<String> publishedContents = new ArrayList<>();
+    private final List<IMqttActionListener> listeners = new ArrayList<>();
+
+    private IMqttAsyncClient client;
+    private SimpleMeterRegistry meterRegistry;
+    private MqttOutbox outbox;
+    private boolean connected;
+
+    @BeforeEach
+    void setUp() throws MqttException {
+        client = mock(IMqttAsyncClient.class);
+        when(client.isConnected()).thenAnswer(invocation -> connected);
+        when(client.publish(anyString(), any(MqttMessage.class), isNull(), any())).thenAnswer(invocation -> {
+            publishedTopics.add(invocation.getArgument(0));
+            MqttMessage message = invocation.getArgument(1);
+            publishedContents.add(new String(message.getPayload(), StandardCharsets.UTF_8));
+            listeners.add(invocation.getArgument(3));
+            return null;
+        });
+        meterRegistry = new SimpleMeterRegistry();
+        outbox = new MqttOutbox(client, meterRegistry);
+    }
+
+    @Test
+    void coalescesStatesWhileWaiting() {
+        outbox.publish("relay/Lawn", "on", true, true);
+        outbox.publish("relay/Lawn", "off", true, true);
+        outbox.publish("relay/Hedge", "on", true, true);
+        assertThat(outbox.size()).isEqualTo(2);
+
+        connect();
+
+        assertThat(publishedTopics).containsExactly("relay/Lawn", "relay/Hedge");
+        assertThat(publishedContents).containsExactly("off", "on");
+    }
+
+    @Test
+    void keepsEveryEvent() {
+        outbox.publish("schedule/1", "started", true, false);
+        outbox.publish("relay/Lawn", "on", true, true);
+        outbox.publish("schedule/1", "finished", true, false);
+        assertThat(outbox.size()).isEqualTo(3);
+
+        connect();
+
+        assertThat(publishedTopics).containsExactly("schedule/1", "relay/Lawn", "schedule/1");
+        assertThat(publishedContents).containsExactly("started", "on", "finished");
+    }
+
+    @Test
+    void doesNotCoalesceWhileConnected() {
+        connect();
+        outbox.publish("relay/Lawn", "on", true, true);
+        outbox.publish("relay/Lawn", "off", true, true);
+
+        assertThat(publishedContents).containsExactly("on", "off");
+    }
+
+    @Test
+    void dropsOldestIfFull() {
+        for (int i = 0; i < 1001; i++) {
+            outbox.publish("schedule/" + i, "event" + i, true, false);
+        }
+        assertThat(outbox.size()).isEqualTo(1000);
+        assertThat(meterRegistry.get("sprinkler.mqtt.outbox.dropped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("sprinkler.mqtt.outbox.size").gauge().value()).isEqualTo(1000);
+
+        connect();
+
+        assertThat(publishedTopics).first().isEqualTo("schedule/1");
+    }
+
+    @Test
+    void limitsInflight() {
+        connect();
+        for (int i = 0; i < 25; i++) {
+            outbox.publish("schedule/" + i, "event" + i, true, false);
+        }
+        assertThat(publishedTopics).hasSize(20);
+        assertThat(outbox.size()).isEqualTo(5);
+
+        listeners.get(0).onSuccess(null);
+
+        assertThat(publishedTopics).hasSize(21).last().isEqualTo("schedule/20");
+        assertThat(outbox.size()).isEqualTo(4);
+    }
+
+    @Test
+    void requeuesFailedMessageAtTheFront() {
+        outbox.publish("schedule/1", "started", true, false);
+        outbox.publish("schedule/1", "finished", true, false);
+        connected = true;
+
+        outbox.connectComplete(false, "tcp://test");
+        connected = false;
+        listeners.get(0).onFailure(null, new MqttException(MqttException.REASON_CODE_CLIENT_NOT_CONNECTED));
+        listeners.get(1).onFailure(null, new MqttException(MqttException.REASON_CODE_CLIENT_NOT_CONNECTED));
+        assertThat(outbox.size()).isEqualTo(2);
+
+        publishedContents.clear();
+        connect();
+
+        assertThat(publishedContents).containsExactly("started", "finished");
+    }
+
+    @Test
+    void requeuedStateYieldsToNewerState() {
+        outbox.publish("relay/Lawn", "on", true, true);
+        connect();
+        connected = false;
+        outbox.publish("relay/Lawn", "off", true, true);
+        listeners.get(0).onFailure(null, new MqttException(MqttException.REASON_CODE_CLIENT_NOT_CONNECTED));
+        assertThat(outbox.size()).isEqualTo(1);
+
+        publishedContents.clear();
+        connect();
+
+        assertThat(publishedContents).containsExactly("off");
+    }
+
+    private void connect() {
+        connected = true;
+        outbox.connectComplete(true, "tcp://test");
+    }
+
+}